@@ -1,19 +1,19 @@
-import javax.swing.Timer;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class AnimationController {
     private final ElevatorTrack elevatorTrack;
     private final DestinationPanel destinationPanel;
     private List<Passenger> animatingPassenger = new ArrayList<>();
-    private Timer animationTimer;
+    private List<Passenger> animatingPassengerView = Collections.unmodifiableList(animatingPassenger);
     private boolean isAnimationRunning = false;
     
     public AnimationController(ElevatorTrack elevatorTrack) {
         this.elevatorTrack = elevatorTrack;
-        this.destinationPanel = DestinationPanel.getDestinationPanel();
+        this.destinationPanel = elevatorTrack.getDestinationPanel();
     }
     
     public void animateMultiplePassengersBoarding(List<Passenger> passengers, int floor) {
@@ -33,7 +33,7 @@ public class AnimationController {
                 elevatorTrack.getPassengerManager().getPassengersInElevator().size() + i
             );
             
-            passenger.startAnimation(startPos, endPos, "entering");
+            elevatorTrack.getPassengerManager().getView(passenger).startAnimation(startPos, endPos, AnimationType.ENTERING);
             animatingPassenger.add(passenger);
         }
         
@@ -44,9 +44,9 @@ public class AnimationController {
         Point startPos = calculatePassengerPositionInCabin(passengerIndex);
         Point endPos = new Point(elevatorTrack.getCabinBounds().x + elevatorTrack.getCabinBounds().width + 50, startPos.y);
         
-        exitingPassenger.startAnimation(startPos, endPos, "exiting");
+        elevatorTrack.getPassengerManager().getView(exitingPassenger).startAnimation(startPos, endPos, AnimationType.EXITING);
         animatingPassenger.add(exitingPassenger);
-        elevatorTrack.getPassengerManager().getPassengersInElevator().remove(passengerIndex);
+        elevatorTrack.getPassengerManager().removePassengerFromElevator(passengerIndex);
         
         startPassengerAnimation();
     }
@@ -70,31 +70,29 @@ public class AnimationController {
 
 
         int distance = Math.abs(targetFloor - elevatorTrack.getCabinFloor());
-        int timePerFloor = 200;
-        int totalTime = distance * timePerFloor;
-        int totalSteps = totalTime / 16;
+        long timePerFloor = elevatorTrack.getBuildingSpec().getFloorTravelMs();
+        int totalTime = (int) (distance * timePerFloor);
+        int totalSteps = totalTime / FrameClock.FRAME_MS;
         
         Rectangle startBounds = new Rectangle(elevatorTrack.getCabinBounds());
         Rectangle endBounds = elevatorTrack.getFloorBounds().get(targetFloor);
         
-        Timer timer = new Timer(16, null);
         final int[] step = {0};
         
-        timer.addActionListener(e -> {
+        elevatorTrack.getFrameClock().addTween(() -> {
             if(step[0] >= totalSteps) {
-                timer.stop();
                 elevatorTrack.setCabinFloor(targetFloor);
                 elevatorTrack.calculatePositions();
                 elevatorTrack.setHighlightedFloor(-1);
                 elevatorTrack.getSimulationController().setMoving(false);
                 destinationPanel.resetDirectionIndicator();
-                elevatorTrack.repaint();
+                elevatorTrack.getRenderingEngine().repaintCabin();
                 
                 if(onComplete != null) {
                     onComplete.run();
                 }
                 
-                return;
+                return false;
             }
             
             float progress = (float)step[0] / totalSteps;
@@ -102,9 +100,17 @@ public class AnimationController {
             
             elevatorTrack.getCabinBounds().y = currentY;
             step[0]++;
-            elevatorTrack.repaint();
+            elevatorTrack.getRenderingEngine().repaintCabin();
+            return true;
         });
-        timer.start();
+    }
+    
+    public void runWhenIdle(Runnable action) {
+        if(!isAnimationRunning) {
+            action.run();
+            return;
+        }
+        elevatorTrack.getEventBus().once(ElevatorEvent.ANIMATION_FINISHED, () -> runWhenIdle(action));
     }
     
     public void startPassengerAnimation() {
@@ -112,34 +118,39 @@ public class AnimationController {
         
         isAnimationRunning = true;
         final int[] step = {0};
-        final int totalSteps = 20;
+        final int totalSteps = (int) (elevatorTrack.getBuildingSpec().getPassengerTransferMs() / FrameClock.FRAME_MS);
         
-        animationTimer = new Timer(16, e -> {
+        elevatorTrack.getFrameClock().addTween(() -> {
             if(step[0] >= totalSteps) {
                 finishAnimation();
-                return;
+                return false;
             }
             
             float progress = (float)step[0] / totalSteps;
             
             for(Passenger passenger : animatingPassenger) {
-                passenger.updateAnimationPosition(progress);
+                elevatorTrack.getPassengerManager().getView(passenger).updateAnimationPosition(progress);
             }
             
             step[0]++;
-            elevatorTrack.repaint();
+            return true;
         });
-        
-        animationTimer.start();
     }
     
   private void finishAnimation() {
     int exitingCount = 0;
     for(Passenger passenger : animatingPassenger) {
-        passenger.finishAnimation();
-        if("entering".equals(passenger.getAnimationType())) {
-            elevatorTrack.getPassengerManager().getPassengersInElevator().add(passenger);
-     } else if("exiting".equals(passenger.getAnimationType())) {
+        PassengerView view = elevatorTrack.getPassengerManager().getView(passenger);
+        view.finishAnimation();
+        if(view.getAnimationType() == AnimationType.ENTERING) {
+            passenger.setInElevator(true);
+            passenger.setBoardTime(elevatorTrack.getFrameClock().now());
+            elevatorTrack.getPassengerManager().boardPassenger(passenger);
+     } else if(view.getAnimationType() == AnimationType.EXITING) {
+            passenger.setInElevator(false);
+            passenger.setAlightTime(elevatorTrack.getFrameClock().now());
+            elevatorTrack.getPassengerManager().getMetrics().recordDelivery(passenger);
+            elevatorTrack.getPassengerManager().releaseView(passenger);
             exitingCount++;
         }
     }
@@ -147,10 +158,6 @@ public class AnimationController {
     animatingPassenger.clear();
     isAnimationRunning = false;
     
-    if(animationTimer != null) {
-        animationTimer.stop();
-    }
-    
     if(exitingCount > 0) {
         checkForImmediateBoardingAfterExit();
     }
@@ -164,16 +171,7 @@ public class AnimationController {
     
     elevatorTrack.getSimulationController().checkSimulationEndConditions();
     
-    Timer queueCheckTimer = new Timer(1000, evt -> {
-        if(!isAnimationRunning && !elevatorTrack.getSimulationController().isMoving()) {
-            elevatorTrack.getQueueManager().processFloorRequestQueue();
-        }
-        ((Timer)evt.getSource()).stop();
-    });
-    queueCheckTimer.setRepeats(false);
-    queueCheckTimer.start();
-    
-    elevatorTrack.repaint();
+    elevatorTrack.getEventBus().publish(ElevatorEvent.ANIMATION_FINISHED);
 }
 private void checkForImmediateBoardingAfterExit() {
     if(!elevatorTrack.getSimulationController().isWaitingOnFloor() || 
@@ -188,7 +186,7 @@ private void checkForImmediateBoardingAfterExit() {
     }
     
     int currentPassengers = elevatorTrack.getPassengerManager().getPassengersInElevator().size();
-    if(currentPassengers >= 5) {
+    if(currentPassengers >= elevatorTrack.getBuildingSpec().getCapacity()) {
         return;
     }
     
@@ -219,7 +217,15 @@ private void checkForImmediateBoardingAfterExit() {
         return isAnimationRunning;
     }
     
+    public void addAnimating(Passenger passenger) {
+        animatingPassenger.add(passenger);
+    }
+    
+    public void clearAnimating() {
+        animatingPassenger.clear();
+    }
+    
     public List<Passenger> getAnimatingPassenger() {
-        return animatingPassenger;
+        return animatingPassengerView;
     }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+public enum AnimationType {
+
+    ENTERING,
+    EXITING
+
+}
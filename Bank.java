@@ -0,0 +1,34 @@
+public class Bank {
+    private final Car[] cars;
+
+    public Bank(int carCount, int floorCount) {
+        if(carCount < 1) {
+            throw new IllegalArgumentException("A bank needs at least one car: " + carCount);
+        }
+        cars = new Car[carCount];
+        for(int i = 0; i < carCount; i++) {
+            cars[i] = new Car(i, floorCount);
+        }
+    }
+
+    public boolean isIdle() {
+        for(Car car : cars) {
+            if(!car.isIdle()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getTrips() {
+        long trips = 0;
+        for(Car car : cars) {
+            trips += car.getTrips();
+        }
+        return trips;
+    }
+
+    public Car getCar(int index) { return cars[index]; }
+    public Car[] getCars() { return cars; }
+    public int size() { return cars.length; }
+}
@@ -0,0 +1,98 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+public class BuildingSpec {
+    public static final String SPEC_FILE_PROPERTY = "elevator.spec";
+    public static final String DEFAULT_SPEC_FILE = "building.properties";
+
+    private final int floors;
+    private final int cars;
+    private final int capacity;
+    private final long floorTravelMs;
+    private final long doorDwellMs;
+    private final long passengerTransferMs;
+
+    public BuildingSpec(int floors, int cars, int capacity, long floorTravelMs, long doorDwellMs, long passengerTransferMs) {
+        if(floors < 2) {
+            throw new IllegalArgumentException("A building needs at least two floors: " + floors);
+        }
+        if(cars < 1) {
+            throw new IllegalArgumentException("A building needs at least one car: " + cars);
+        }
+        if(capacity < 1) {
+            throw new IllegalArgumentException("Cabin capacity must be positive: " + capacity);
+        }
+        if(floorTravelMs < 1 || doorDwellMs < 0 || passengerTransferMs < 0) {
+            throw new IllegalArgumentException("Invalid timings: travel=" + floorTravelMs +
+                " dwell=" + doorDwellMs + " transfer=" + passengerTransferMs);
+        }
+
+        this.floors = floors;
+        this.cars = cars;
+        this.capacity = capacity;
+        this.floorTravelMs = floorTravelMs;
+        this.doorDwellMs = doorDwellMs;
+        this.passengerTransferMs = passengerTransferMs;
+    }
+
+    public static BuildingSpec defaults() {
+        return new BuildingSpec(11, 1, 5, 200, 5000, 320);
+    }
+
+    public static BuildingSpec load() {
+        return load(Paths.get(System.getProperty(SPEC_FILE_PROPERTY, DEFAULT_SPEC_FILE)));
+    }
+
+    public static BuildingSpec load(Path path) {
+        Properties properties = new Properties();
+        if(Files.isRegularFile(path)) {
+            try(InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+            } catch(IOException e) {
+                throw new UncheckedIOException("Cannot read building spec " + path, e);
+            }
+        }
+
+        BuildingSpec base = defaults();
+        return new BuildingSpec(
+            (int) readLong(properties, "floors", base.floors),
+            (int) readLong(properties, "cars", base.cars),
+            (int) readLong(properties, "capacity", base.capacity),
+            readLong(properties, "floorTravelMs", base.floorTravelMs),
+            readLong(properties, "doorDwellMs", base.doorDwellMs),
+            readLong(properties, "passengerTransferMs", base.passengerTransferMs)
+        );
+    }
+
+    private static long readLong(Properties properties, String key, long defaultValue) {
+        String value = System.getProperty("elevator." + key, properties.getProperty(key));
+        if(value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch(NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value, e);
+        }
+    }
+
+    public int getFloors() { return floors; }
+    public int getTopFloor() { return floors - 1; }
+    public int getCars() { return cars; }
+    public int getCapacity() { return capacity; }
+    public long getFloorTravelMs() { return floorTravelMs; }
+    public long getDoorDwellMs() { return doorDwellMs; }
+    public long getPassengerTransferMs() { return passengerTransferMs; }
+
+    @Override
+    public String toString() {
+        return "floors=" + floors + " cars=" + cars + " capacity=" + capacity +
+            " floorTravelMs=" + floorTravelMs + " doorDwellMs=" + doorDwellMs +
+            " passengerTransferMs=" + passengerTransferMs;
+    }
+}
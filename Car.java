@@ -0,0 +1,109 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class Car {
+    private final int id;
+    private final FloorRequestQueue requestQueue;
+    private final List<Passenger> passengersInElevator = new ArrayList<>();
+    private final int[] destinationLoad;
+    private int pendingPickups = 0;
+
+    private int cabinFloor = 0;
+    private int destinationFloor = 0;
+    private boolean isMoving = false;
+    private boolean isTransferring = false;
+    private boolean isDwelling = false;
+    private long dwellGeneration = 0;
+    private long busyUntil = 0;
+    private long trips = 0;
+
+    public Car(int id, int floorCount) {
+        this.id = id;
+        this.requestQueue = new FloorRequestQueue(floorCount);
+        this.destinationLoad = new int[floorCount];
+    }
+
+    public void reserve(int destination) {
+        pendingPickups++;
+        destinationLoad[destination]++;
+    }
+
+    public void cancelReservation(int destination) {
+        pendingPickups--;
+        destinationLoad[destination]--;
+    }
+
+    public void pickUp() {
+        pendingPickups--;
+    }
+
+    public void dropOff(int destination) {
+        if(destinationLoad[destination] > 0) {
+            destinationLoad[destination]--;
+        }
+    }
+
+    public boolean canMove() {
+        return !isTransferring && !isMoving && !isDwelling;
+    }
+
+    public boolean isIdle() {
+        return !isMoving && !isTransferring && passengersInElevator.isEmpty() && requestQueue.isEmpty();
+    }
+
+    public List<Passenger> removePassengersFor(int floor) {
+        List<Passenger> alighting = new ArrayList<>();
+        Iterator<Passenger> riders = passengersInElevator.iterator();
+        while(riders.hasNext()) {
+            Passenger passenger = riders.next();
+            if(passenger.getTargetFloor() == floor) {
+                riders.remove();
+                alighting.add(passenger);
+            }
+        }
+        return alighting;
+    }
+
+    public void depart(int floor, long arrivalTime) {
+        isMoving = true;
+        destinationFloor = floor;
+        busyUntil = arrivalTime;
+        trips++;
+    }
+
+    public void arrive(int floor) {
+        cabinFloor = floor;
+        destinationFloor = floor;
+        isMoving = false;
+        requestQueue.remove(floor);
+    }
+
+    public long startDwell(long dwellEnd) {
+        isDwelling = true;
+        busyUntil = dwellEnd;
+        return ++dwellGeneration;
+    }
+
+    public boolean finishDwell(long generation) {
+        if(generation != dwellGeneration) {
+            return false;
+        }
+        isDwelling = false;
+        return true;
+    }
+
+    public int getId() { return id; }
+    public FloorRequestQueue getRequestQueue() { return requestQueue; }
+    public List<Passenger> getPassengersInElevator() { return passengersInElevator; }
+    public int getCabinFloor() { return cabinFloor; }
+    public int getDestinationFloor() { return destinationFloor; }
+    public boolean isMoving() { return isMoving; }
+    public boolean isTransferring() { return isTransferring; }
+    public void setTransferring(boolean transferring) { this.isTransferring = transferring; }
+    public boolean isDwelling() { return isDwelling; }
+    public int getPendingPickups() { return pendingPickups; }
+    public int getDestinationLoad(int floor) { return destinationLoad[floor]; }
+    public long getBusyUntil() { return busyUntil; }
+    public long getTrips() { return trips; }
+}
@@ -0,0 +1,122 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntConsumer;
+import javax.swing.SwingUtilities;
+
+public class CommandQueueCheck {
+    public static void main(String[] args) throws Exception {
+        int producers = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int commandsPerProducer = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        int failures = checkQueue(producers, commandsPerProducer) + checkSubmit(producers, commandsPerProducer / 10);
+        if(failures > 0) {
+            System.out.println("FAILED: " + failures + " problems");
+            System.exit(1);
+        }
+        System.out.println("OK");
+        System.exit(0);
+    }
+
+    private static int checkQueue(int producers, int commandsPerProducer) throws InterruptedException {
+        MpscQueue<Long> queue = new MpscQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = startProducers(producers, start, producer -> {
+            for(int i = 0; i < commandsPerProducer; i++) {
+                queue.offer(((long) producer << 32) | i);
+            }
+        });
+
+        int[] drained = new int[producers];
+        int failures = 0;
+        long expected = (long) producers * commandsPerProducer;
+        start.countDown();
+        long seen = 0;
+        while(seen < expected) {
+            Long value = queue.poll();
+            if(value == null) {
+                if(finished(threads) && queue.isEmpty()) {
+                    failures += (int) (expected - seen);
+                    break;
+                }
+                Thread.onSpinWait();
+                continue;
+            }
+            int producer = (int) (value >>> 32);
+            int sequence = (int) (long) value;
+            if(sequence != drained[producer]) {
+                failures++;
+            }
+            drained[producer] = sequence + 1;
+            seen++;
+        }
+        join(threads);
+        if(!queue.isEmpty()) {
+            failures++;
+        }
+        System.out.printf("queue:  %d producers x %d offers, %d lost, duplicated or out of order%n",
+            producers, commandsPerProducer, failures);
+        return failures;
+    }
+
+    private static int checkSubmit(int producers, int commandsPerProducer) throws Exception {
+        ElevatorTrack[] track = new ElevatorTrack[1];
+        SwingUtilities.invokeAndWait(() -> track[0] = new ElevatorTrack(BuildingSpec.defaults(), new FrameClock(false)));
+
+        int[][] applied = new int[producers][commandsPerProducer];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = startProducers(producers, start, producer -> {
+            for(int i = 0; i < commandsPerProducer; i++) {
+                int sequence = i;
+                track[0].submit(elevatorTrack -> applied[producer][sequence]++);
+            }
+        });
+        start.countDown();
+        join(threads);
+
+        int[] failures = new int[1];
+        SwingUtilities.invokeAndWait(() -> {
+            for(int[] commands : applied) {
+                for(int count : commands) {
+                    if(count != 1) {
+                        failures[0]++;
+                    }
+                }
+            }
+        });
+        System.out.printf("submit: %d producers x %d commands, %d not applied exactly once%n",
+            producers, commandsPerProducer, failures[0]);
+        return failures[0];
+    }
+
+    private static Thread[] startProducers(int producers, CountDownLatch start, IntConsumer body) {
+        Thread[] threads = new Thread[producers];
+        for(int i = 0; i < producers; i++) {
+            int producer = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                body.accept(producer);
+            }, "producer-" + i);
+            threads[i].start();
+        }
+        return threads;
+    }
+
+    private static boolean finished(Thread[] threads) {
+        for(Thread thread : threads) {
+            if(thread.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void join(Thread[] threads) throws InterruptedException {
+        for(Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+public interface CostModel {
+    String COST_MODEL_PROPERTY = "elevator.costModel";
+
+    long travelTime(int fromFloor, int toFloor);
+
+    long stopTime();
+
+    double travelEnergy(int fromFloor, int toFloor, int load);
+
+    static CostModel create(BuildingSpec spec) {
+        String model = System.getProperty(COST_MODEL_PROPERTY, "linear");
+        switch(model) {
+            case "linear":
+                return new LinearCostModel(spec);
+            case "kinematic":
+                return KinematicCostModel.fromProperties(spec);
+            default:
+                throw new IllegalArgumentException("Unknown cost model: " + model);
+        }
+    }
+}
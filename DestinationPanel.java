@@ -6,13 +6,12 @@ import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JPanel;
 
-public class DestinationPanel extends JPanel {
-    private static DestinationPanel destinationPanel = new DestinationPanel(); 
+public final class DestinationPanel extends JPanel {
     private JButton buttonUp; 
     private JButton buttonDown;
     private Color defaultColor;
     
-    private DestinationPanel(){
+    public DestinationPanel(){
         setLayout(new BorderLayout());
         setBorder(BorderFactory.createLineBorder(Color.BLACK));
         
@@ -35,14 +34,6 @@ public class DestinationPanel extends JPanel {
         
     }
     
-    public static DestinationPanel getDestinationPanel(){
-        if(destinationPanel == null){
-            destinationPanel = new DestinationPanel();
-            return destinationPanel;
-        }
-        return destinationPanel;
-    }
-    
     public void updateDirectionIndicator(Directions direction){
         switch (direction) {
             case Directions.UP:
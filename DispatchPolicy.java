@@ -0,0 +1,21 @@
+public enum DispatchPolicy {
+
+    ETA,
+    NEAREST_CAR,
+    DESTINATION;
+
+    public HeadlessSimulation createSimulation(long seed, BuildingSpec spec) {
+        CostModel costModel = CostModel.create(spec);
+        switch(this) {
+            case NEAREST_CAR:
+                return new HeadlessSimulation(seed, spec, costModel, new NearestCarDispatcher());
+            case DESTINATION:
+                HeadlessSimulation simulation = new HeadlessSimulation(seed, spec, costModel);
+                simulation.setDestinationDispatch(true);
+                return simulation;
+            default:
+                return new HeadlessSimulation(seed, spec, costModel);
+        }
+    }
+
+}
@@ -6,28 +6,26 @@ import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import javax.swing.JButton;
 import javax.swing.JPanel;
-import javax.swing.Timer;
 import javax.swing.border.EmptyBorder;
 
 
 public class ElevatorButtons extends JPanel {
     private GridBagConstraints gbc;
     private ElevatorTrack elevatorTrack;
-    private Map<Integer, JButton> floorButtons;
+    private JButton[] floorButtons;
     private boolean isMoving = false;
     private boolean buttonsEnabled = false;
     
-    public ElevatorButtons() {
+    public ElevatorButtons(ElevatorTrack elevatorTrack) {
         setupLayout();
-        this.elevatorTrack = ElevatorTrack.getElevatorTrack();
-        this.floorButtons = new HashMap<>(11);
+        this.elevatorTrack = elevatorTrack;
+        this.floorButtons = new JButton[elevatorTrack.getBuildingSpec().getFloors()];
         initializeButtons();
+        
+        elevatorTrack.addSnapshotListener(this::applySnapshotChanges);
     }
     
     private void setupLayout() {
@@ -40,14 +38,14 @@ public class ElevatorButtons extends JPanel {
     }
     
     private void initializeButtons() {
-        for (int i = 10; i >= 0; i--) {
+        for (int i = elevatorTrack.getBuildingSpec().getTopFloor(); i >= 0; i--) {
             JButton floorButton = new JButton(String.valueOf(i));
             final int targetFloor = i;
             
             setupButton(floorButton, targetFloor);
             positionButton(floorButton, i);
             
-            floorButtons.put(targetFloor, floorButton);
+            floorButtons[targetFloor] = floorButton;
             this.add(floorButton, gbc);
         }
         
@@ -68,13 +66,13 @@ public class ElevatorButtons extends JPanel {
     
     private void positionButton(JButton button, int floor) {
         gbc.gridx = (floor % 3);
-        gbc.gridy = 10 - floor / 3;
+        gbc.gridy = elevatorTrack.getBuildingSpec().getTopFloor() / 3 - floor / 3;
     }
     
  
     private void handleFloorButtonClick(int targetFloor) {
-            if (elevatorTrack.getAnimationController().isAnimationRunning()) {
-                scheduleRetry(() -> handleFloorButtonClick(targetFloor), 200);
+        if (elevatorTrack.getAnimationController().isAnimationRunning()) {
+            elevatorTrack.getAnimationController().runWhenIdle(() -> handleFloorButtonClick(targetFloor));
             return;
         }
         
@@ -92,29 +90,19 @@ public class ElevatorButtons extends JPanel {
             return;
         }
         
-        List<Integer> elevatorTargets = elevatorTrack.getQueueManager().getElevatorTargetsList();
+        FloorRequestQueue.View elevatorTargets = elevatorTrack.getQueueManager().getElevatorTargets();
         if (elevatorTargets.contains(targetFloor)) {
             return;
         }
         
         elevatorTrack.addFloorTarget(targetFloor);
-        
-        updateButtonStates();
-    }
-    
-    private void scheduleRetry(Runnable action, int delay) {
-        Timer retryTimer = new Timer(delay, e -> {
-            if (!elevatorTrack.getAnimationController().isAnimationRunning()) {
-                action.run();
-            } else {
-            }
-            ((Timer) e.getSource()).stop();
-        });
-        retryTimer.setRepeats(false);
-        retryTimer.start();
     }
     
     public void enableFloorSelection() {
+        if (buttonsEnabled) {
+            return;
+        }
+        
         if (!elevatorTrack.getSimulationController().isSimulationStarted() ||
             elevatorTrack.getSimulationController().isSimulationEnded()) {
             return;
@@ -125,7 +113,7 @@ public class ElevatorButtons extends JPanel {
         }
         
         if (elevatorTrack.getAnimationController().isAnimationRunning()) {
-            scheduleRetry(this::enableFloorSelection, 100);
+            elevatorTrack.getAnimationController().runWhenIdle(this::enableFloorSelection);
             return;
         }
         
@@ -134,55 +122,69 @@ public class ElevatorButtons extends JPanel {
     }
     
     public void disableFloorSelection() {
-        buttonsEnabled = false;
-        
-        for (JButton button : floorButtons.values()) {
-            button.setEnabled(false);
-            button.setBackground(Color.DARK_GRAY);
+        if (!buttonsEnabled) {
+            return;
         }
         
+        buttonsEnabled = false;
+        updateButtonStates();
     }
     
     public void synchronizeWithTrackTargets() {
         if (elevatorTrack.getAnimationController().isAnimationRunning()) {
-            scheduleRetry(this::synchronizeWithTrackTargets, 100);
+            elevatorTrack.getAnimationController().runWhenIdle(this::synchronizeWithTrackTargets);
             return;
         }
         
         updateButtonStates();
     }
     
-    private void updateButtonStates() {
-        List<Integer> elevatorTargets = elevatorTrack.getQueueManager().getElevatorTargetsList();
-        int currentFloor = elevatorTrack.getCabinFloor();
-        boolean hasPassengers = elevatorTrack.getPassengerManager().hasPassengersInElevator();
+    private void applySnapshotChanges(SimulationSnapshot previous, SimulationSnapshot next) {
+        if ((previous.getRidersInCabin() > 0) != (next.getRidersInCabin() > 0)) {
+            updateButtonStates();
+            return;
+        }
         
-        for (Map.Entry<Integer, JButton> entry : floorButtons.entrySet()) {
-            int floor = entry.getKey();
-            JButton button = entry.getValue();
-            
-            updateSingleButtonState(button, floor, elevatorTargets, currentFloor,hasPassengers);
+        if (previous.getCabinFloor() != next.getCabinFloor()) {
+            updateSingleButtonState(previous.getCabinFloor(), next);
+            updateSingleButtonState(next.getCabinFloor(), next);
+        }
+        for (int i = 0; i < next.getChangedFloorCount(); i++) {
+            updateSingleButtonState(next.getChangedFloor(i), next);
+        }
+    }
+    
+    private void updateButtonStates() {
+        SimulationSnapshot state = elevatorTrack.getSnapshot();
+        for (int floor = 0; floor < floorButtons.length; floor++) {
+            updateSingleButtonState(floor, state);
         }
     }
     
-    private void updateSingleButtonState(JButton button, int floor, List<Integer> elevatorTargets, 
-                                       int currentFloor, boolean hasPassengers) {
+    private void updateSingleButtonState(int floor, SimulationSnapshot state) {
+        boolean enabled = false;
+        Color background;
         
-        if (!buttonsEnabled || !hasPassengers) {
-            button.setEnabled(false);
-            button.setBackground(Color.DARK_GRAY);
+        if (!buttonsEnabled || state.getRidersInCabin() == 0) {
+            background = Color.DARK_GRAY;
             
-        } else if (elevatorTargets.contains(floor)) {
-            button.setEnabled(false);
-            button.setBackground(Color.ORANGE);
+        } else if (state.getFloor(floor).isQueued()) {
+            background = Color.ORANGE;
             
-        } else if (floor == currentFloor) {
-            button.setEnabled(false);
-            button.setBackground(Color.LIGHT_GRAY);
+        } else if (floor == state.getCabinFloor()) {
+            background = Color.LIGHT_GRAY;
             
-        }  else {
-            button.setEnabled(true);
-            button.setBackground(Color.WHITE);
+        } else {
+            enabled = true;
+            background = Color.WHITE;
+        }
+        
+        JButton button = floorButtons[floor];
+        if (button.isEnabled() != enabled) {
+            button.setEnabled(enabled);
+        }
+        if (!background.equals(button.getBackground())) {
+            button.setBackground(background);
         }
     }
     
@@ -190,19 +192,11 @@ public class ElevatorButtons extends JPanel {
         elevatorTrack.getQueueManager().clearQueue();
         isMoving = false;
         
-        Timer checkTimer = new Timer(100, e -> {
-            elevatorTrack.getSimulationController().checkSimulationEndConditions();
-            ((Timer) e.getSource()).stop();
-        });
-        checkTimer.setRepeats(false);
-        checkTimer.start();
-        
-        if (buttonsEnabled) {
-            updateButtonStates();
-        }
+        elevatorTrack.getFrameClock().schedule(100,
+            () -> elevatorTrack.getSimulationController().checkSimulationEndConditions());
     }
     
     public List<Integer> getQueuedRequests() {
-        return new ArrayList<>(elevatorTrack.getQueueManager().getElevatorTargetsList());
+        return elevatorTrack.getSnapshot().getTargets();
     }
 }
\ No newline at end of file
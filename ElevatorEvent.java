@@ -0,0 +1,8 @@
+public enum ElevatorEvent {
+
+    ANIMATION_FINISHED,
+    DOORS_CLOSED,
+    COMMAND_REJECTED,
+    SIMULATION_ENDED
+
+}
@@ -0,0 +1,42 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+public class ElevatorEventBus {
+    private final EnumMap<ElevatorEvent, List<Runnable>> subscribers = new EnumMap<>(ElevatorEvent.class);
+    private final EnumMap<ElevatorEvent, ArrayDeque<Runnable>> pendingOnce = new EnumMap<>(ElevatorEvent.class);
+
+    public ElevatorEventBus() {
+        for(ElevatorEvent event : ElevatorEvent.values()) {
+            subscribers.put(event, new ArrayList<>());
+            pendingOnce.put(event, new ArrayDeque<>());
+        }
+    }
+
+    public void subscribe(ElevatorEvent event, Runnable listener) {
+        subscribers.get(event).add(listener);
+    }
+
+    public void once(ElevatorEvent event, Runnable listener) {
+        pendingOnce.get(event).add(listener);
+    }
+
+    public void publish(ElevatorEvent event) {
+        for(Runnable listener : subscribers.get(event)) {
+            listener.run();
+        }
+
+        ArrayDeque<Runnable> queued = pendingOnce.get(event);
+        int count = queued.size();
+        for(int i = 0; i < count; i++) {
+            queued.poll().run();
+        }
+    }
+
+    public void clear() {
+        for(ArrayDeque<Runnable> queued : pendingOnce.values()) {
+            queued.clear();
+        }
+    }
+}
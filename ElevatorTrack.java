@@ -6,37 +6,59 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
-public class ElevatorTrack extends JPanel {
-    private static ElevatorTrack elevatorTrack = new ElevatorTrack();
-    
+public final class ElevatorTrack extends JPanel {
     private PassengerManager passengerManager;
     private AnimationController animationController;
     private TaskScheduler queueManager;
     private SimulationController simulationController;
     private RenderingEngine renderingEngine;
+    private final FrameClock frameClock;
+    private ElevatorEventBus eventBus;
+    
+    private final MpscQueue<SimulationCommand> commands = new MpscQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private volatile SimulationSnapshot snapshot;
+    private final List<BiConsumer<SimulationSnapshot, SimulationSnapshot>> snapshotListeners = new ArrayList<>();
+    private RuntimeException lastRejection;
+    private int rejectedCommands = 0;
     
     private HashMap<Integer, Rectangle> floorBounds;
     private HashMap<Integer, Rectangle> callButtonBounds;
     private Rectangle cabinBounds;
+    private final TrackHitIndex hitIndex = new TrackHitIndex();
     private int cabinFloor = 0;
     private int highlightedFloor = -1;
     
     private ElevatorButtons elevatorButtons;
-    private static DestinationPanel destinationPanel = DestinationPanel.getDestinationPanel();
+    private final DestinationPanel destinationPanel;
     private JButton startButton;
+    private final BuildingSpec buildingSpec;
+    
+    public ElevatorTrack(BuildingSpec buildingSpec) {
+        this(buildingSpec, new FrameClock());
+    }
     
-    private ElevatorTrack() {
+    public ElevatorTrack(BuildingSpec buildingSpec, FrameClock frameClock) {
+        this.buildingSpec = buildingSpec;
+        this.destinationPanel = new DestinationPanel();
+        this.frameClock = frameClock;
         initializeComponents();
         setupLayout();
         setupEventHandlers();
     }
     
     private void initializeComponents() {
+        eventBus = new ElevatorEventBus();
         passengerManager = new PassengerManager(this);
         animationController = new AnimationController(this);
         queueManager = new TaskScheduler(this);
@@ -45,6 +67,9 @@ public class ElevatorTrack extends JPanel {
         
         floorBounds = new HashMap<>();
         callButtonBounds = new HashMap<>();
+        
+        snapshot = SimulationSnapshot.empty(buildingSpec.getFloors());
+        frameClock.addFrameListener(this::publishSnapshot);
     }
     
     private void setupLayout() {
@@ -74,6 +99,7 @@ public class ElevatorTrack extends JPanel {
             @Override
             public void componentResized(java.awt.event.ComponentEvent e) {
                 calculatePositions();
+                renderingEngine.invalidateBackground();
             }
         });
     }
@@ -85,15 +111,14 @@ public class ElevatorTrack extends JPanel {
         
         if(simulationController.isWaitingOnFloor() && cabinBounds != null && cabinBounds.contains(e.getPoint())) {
             passengerManager.unloadSpecificPassenger(e.getPoint());
+            publishSnapshot();
             return;
         }
         
-        for(int floor = 0; floor <= 10; floor++) {
-            Rectangle callBounds = callButtonBounds.get(floor);
-            if(callBounds != null && callBounds.contains(e.getPoint())) {
-                queueManager.handleFloorCallButtonClick(floor);
-                return;
-            }
+        int floor = hitIndex.callButtonAt(e.getX(), e.getY());
+        if(floor != -1) {
+            queueManager.handleFloorCallButtonClick(floor);
+            publishSnapshot();
         }
     }
     
@@ -101,23 +126,69 @@ public class ElevatorTrack extends JPanel {
         if(e.getKeyCode() == KeyEvent.VK_SHIFT) {
             if(simulationController.canExitPassenger()) {
                 passengerManager.animatePassengerExit();
+                publishSnapshot();
             }
         }
     }
     
-    public static ElevatorTrack getElevatorTrack() {
-        if(elevatorTrack == null) {
-            elevatorTrack = new ElevatorTrack();
-        }
-        return elevatorTrack;
-    }
-    
     public void startSimulation() {
         simulationController.startSimulation();
+        publishSnapshot();
     }
     
     public void addFloorTarget(int targetFloor) {
         queueManager.addFloorTarget(targetFloor);
+        publishSnapshot();
+    }
+    
+    public void setTimeScale(double scale) {
+        frameClock.setTimeScale(scale);
+    }
+    
+    public void skipAhead(long simulatedMs) {
+        frameClock.skipTo(frameClock.now() + simulatedMs, this::repaint);
+    }
+    
+    public void submit(SimulationCommand command) {
+        commands.offer(command);
+        if(drainScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::drainCommands);
+        }
+    }
+    
+    private void drainCommands() {
+        drainScheduled.set(false);
+        SimulationCommand command;
+        while((command = commands.poll()) != null) {
+            try {
+                command.apply(this);
+            } catch(RuntimeException e) {
+                lastRejection = e;
+                rejectedCommands++;
+                eventBus.publish(ElevatorEvent.COMMAND_REJECTED);
+            }
+        }
+        publishSnapshot();
+    }
+    
+    public void publishSnapshot() {
+        SimulationSnapshot previous = snapshot;
+        SimulationSnapshot next = SimulationSnapshot.capture(this, previous);
+        if(next != previous) {
+            snapshot = next;
+            renderingEngine.repaintChanges(previous, next);
+            for(BiConsumer<SimulationSnapshot, SimulationSnapshot> listener : snapshotListeners) {
+                listener.accept(previous, next);
+            }
+        }
+    }
+    
+    public void addSnapshotListener(BiConsumer<SimulationSnapshot, SimulationSnapshot> listener) {
+        snapshotListeners.add(listener);
+    }
+    
+    public SimulationSnapshot getSnapshot() {
+        return snapshot;
     }
     
     public void calculatePositions() {
@@ -127,20 +198,23 @@ public class ElevatorTrack extends JPanel {
     
     private void calculateFloorPositions() {
         int availableHeight = getHeight() - 40;
-        int floorHeight = availableHeight / 11;
+        int floorHeight = availableHeight / buildingSpec.getFloors();
         int startY = 20;
         
         floorBounds.clear();
         callButtonBounds.clear();
         
-        for(int i = 0; i <= 10; i++) {
-            int y = startY + (10-i) * floorHeight;
+        for(int i = 0; i < buildingSpec.getFloors(); i++) {
+            int y = startY + (buildingSpec.getTopFloor() - i) * floorHeight;
             floorBounds.put(i, new Rectangle(10, y, 100, floorHeight-2));
             
             int callButtonX = 10 + 100 + 10;
             int callButtonY = y + (floorHeight - 25) / 2;
             callButtonBounds.put(i, new Rectangle(callButtonX, callButtonY, 40, 25));
         }
+        
+        hitIndex.rebuild(buildingSpec.getFloors(), startY, floorHeight, 
+            new Rectangle(10 + 100 + 10, (floorHeight - 25) / 2, 40, 25));
     }
     
     private void calculateCabinPosition() {
@@ -166,6 +240,11 @@ public class ElevatorTrack extends JPanel {
     public TaskScheduler getQueueManager() { return queueManager; }
     public SimulationController getSimulationController() { return simulationController; }
     public RenderingEngine getRenderingEngine() { return renderingEngine; }
+    public FrameClock getFrameClock() { return frameClock; }
+    public ElevatorEventBus getEventBus() { return eventBus; }
+    public RuntimeException getLastRejection() { return lastRejection; }
+    public int getRejectedCommands() { return rejectedCommands; }
+    public BuildingSpec getBuildingSpec() { return buildingSpec; }
     
     public HashMap<Integer, Rectangle> getFloorBounds() { return floorBounds; }
     public HashMap<Integer, Rectangle> getCallButtonBounds() { return callButtonBounds; }
@@ -183,7 +262,7 @@ public class ElevatorTrack extends JPanel {
         return elevatorButtons;
     }
     
-    public static DestinationPanel getDestinationPanel() {
+    public DestinationPanel getDestinationPanel() {
         return destinationPanel;
     }
     
@@ -0,0 +1,124 @@
+public class EtaGroupDispatcher implements GroupDispatcher {
+    public static final String ENERGY_WEIGHT_PROPERTY = "elevator.cost.energyWeight";
+
+    private final BuildingSpec spec;
+    private final CostModel costModel;
+    private final double energyWeight;
+    private RouteEstimate[] routes = new RouteEstimate[0];
+
+    public EtaGroupDispatcher(BuildingSpec spec) {
+        this(spec, CostModel.create(spec));
+    }
+
+    public EtaGroupDispatcher(BuildingSpec spec, CostModel costModel) {
+        this.spec = spec;
+        this.costModel = costModel;
+        this.energyWeight = Double.parseDouble(System.getProperty(ENERGY_WEIGHT_PROPERTY, "0"));
+    }
+
+    @Override
+    public Car assignHallCall(Bank bank, int floor, long now) {
+        if(bank.size() == 1) {
+            return bank.getCar(0);
+        }
+
+        Car best = bank.getCar(0);
+        long bestCost = Long.MAX_VALUE;
+
+        for(Car car : bank.getCars()) {
+            long cost = estimateAssignmentCost(car, floor, now);
+            if(cost > 0 && predictedLoadAt(car, floor) >= spec.getCapacity()) {
+                cost += fullCarPenalty();
+            }
+            if(cost < bestCost) {
+                bestCost = cost;
+                best = car;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public Car assignDestinationCall(Bank bank, int origin, int destination, long now) {
+        if(bank.size() == 1) {
+            return bank.getCar(0);
+        }
+
+        Car best = bank.getCar(0);
+        long bestCost = Long.MAX_VALUE;
+
+        for(Car car : bank.getCars()) {
+            long cost = estimateAssignmentCost(car, origin, now);
+            if(car.getDestinationLoad(destination) == 0) {
+                cost += costModel.stopTime();
+            }
+            if(predictedLoadAt(car, origin) + car.getPendingPickups() >= spec.getCapacity()) {
+                cost += fullCarPenalty();
+            }
+            if(cost < bestCost) {
+                bestCost = cost;
+                best = car;
+            }
+        }
+        return best;
+    }
+
+    public long estimateAssignmentCost(Car car, int floor, long now) {
+        long eta = estimateTimeToArrival(car, floor, now);
+        if(eta == 0) {
+            return 0;
+        }
+
+        long cost = eta + predictedLoadAt(car, floor) * costModel.stopTime();
+        if(energyWeight > 0) {
+            int position = car.isMoving() ? car.getDestinationFloor() : car.getCabinFloor();
+            double energy = costModel.travelEnergy(position, floor, car.getPassengersInElevator().size());
+            cost += Math.round(energyWeight * energy / 1000);
+        }
+        return cost;
+    }
+
+    public int predictedLoadAt(Car car, int floor) {
+        RouteEstimate route = routeFor(car);
+        long arrival = route.getArrivalOffset(floor);
+        int load = 0;
+        for(Passenger passenger : car.getPassengersInElevator()) {
+            int target = passenger.getTargetFloor();
+            if(target < 0 || route.getArrivalOffset(target) > arrival) {
+                load++;
+            }
+        }
+        return load;
+    }
+
+    private long fullCarPenalty() {
+        return 2 * costModel.travelTime(0, spec.getTopFloor()) + spec.getDoorDwellMs();
+    }
+
+    public long estimateTimeToArrival(Car car, int floor, long now) {
+        if(car.getRequestQueue().contains(floor)) {
+            return 0;
+        }
+
+        long eta = Math.max(0, car.getBusyUntil() - now);
+        if(car.isMoving()) {
+            eta += costModel.stopTime();
+        }
+        return eta + routeFor(car).getArrivalOffset(floor);
+    }
+
+    private RouteEstimate routeFor(Car car) {
+        if(car.getId() >= routes.length) {
+            RouteEstimate[] grown = new RouteEstimate[car.getId() + 1];
+            System.arraycopy(routes, 0, grown, 0, routes.length);
+            routes = grown;
+        }
+        if(routes[car.getId()] == null) {
+            routes[car.getId()] = new RouteEstimate(costModel, spec.getFloors());
+        }
+
+        RouteEstimate route = routes[car.getId()];
+        route.update(car.getRequestQueue(), car.isMoving() ? car.getDestinationFloor() : car.getCabinFloor());
+        return route;
+    }
+}
@@ -0,0 +1,69 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class EventLogReplayer implements AutoCloseable {
+    private final FileChannel channel;
+    private final long eventCount;
+
+    public EventLogReplayer(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        long size = channel.size();
+        long recorded = size < SimulationEventLog.HEADER_BYTES ? -1
+            : channel.map(FileChannel.MapMode.READ_ONLY, 0, SimulationEventLog.HEADER_BYTES).getLong();
+        if(recorded < 0 || SimulationEventLog.HEADER_BYTES + recorded * SimulationEventLog.RECORD_BYTES > size) {
+            channel.close();
+            throw new IOException("Truncated event log " + path + ": " + size + " bytes");
+        }
+        this.eventCount = recorded;
+    }
+
+    public ReplayState replayTo(long offset, BuildingSpec spec) throws IOException {
+        ReplayState state = new ReplayState(spec);
+        long end = Math.min(offset, eventCount);
+        long regionEvents = SimulationEventLog.REGION_BYTES / SimulationEventLog.RECORD_BYTES;
+
+        for(long first = 0; first < end; first += regionEvents) {
+            long count = Math.min(regionEvents, end - first);
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY,
+                SimulationEventLog.HEADER_BYTES + first * SimulationEventLog.RECORD_BYTES,
+                count * SimulationEventLog.RECORD_BYTES);
+
+            for(long i = 0; i < count; i++) {
+                long time = region.getLong();
+                SimulationEventType type = SimulationEventType.fromCode(region.get());
+                int car = region.getShort();
+                int floor = region.getInt();
+                int passenger = region.getInt();
+                int aux = region.getInt();
+                state.apply(time, type, car, floor, passenger, aux);
+            }
+        }
+        return state;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1) {
+            System.err.println("usage: EventLogReplayer <log> [offset]");
+            System.exit(2);
+        }
+
+        BuildingSpec spec = BuildingSpec.load();
+        try(EventLogReplayer replayer = new EventLogReplayer(Paths.get(args[0]))) {
+            long offset = args.length > 1 ? Long.parseLong(args[1]) : replayer.getEventCount();
+            System.out.print(replayer.replayTo(offset, spec));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+import java.util.PriorityQueue;
+
+public class EventLoop {
+    private final PriorityQueue<ScheduledEvent> events = new PriorityQueue<>();
+    private long now = 0;
+    private long sequence = 0;
+    private long processedEvents = 0;
+
+    public void schedule(long delay, Runnable action) {
+        scheduleAt(now + Math.max(0, delay), action);
+    }
+
+    public void scheduleAt(long time, Runnable action) {
+        events.add(new ScheduledEvent(Math.max(now, time), sequence++, action));
+    }
+
+    public boolean step() {
+        ScheduledEvent event = events.poll();
+        if(event == null) {
+            return false;
+        }
+
+        now = event.time;
+        processedEvents++;
+        event.action.run();
+        return true;
+    }
+
+    public void run() {
+        while(step()) {
+        }
+    }
+
+    public void runUntil(long endTime) {
+        while(!events.isEmpty() && events.peek().time <= endTime) {
+            step();
+        }
+        now = Math.max(now, endTime);
+    }
+
+    public void clear() {
+        events.clear();
+    }
+
+    public boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    public long now() {
+        return now;
+    }
+
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    private static final class ScheduledEvent implements Comparable<ScheduledEvent> {
+        private final long time;
+        private final long sequence;
+        private final Runnable action;
+
+        private ScheduledEvent(long time, long sequence, Runnable action) {
+            this.time = time;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(ScheduledEvent other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public class FloorRequestQueue {
+    private final int floorCount;
+    private final long[] words;
+    private int size = 0;
+    private int version = 0;
+    private Directions currentDirection = null;
+    private final View view = new View();
+
+    public FloorRequestQueue(int floorCount) {
+        this.floorCount = floorCount;
+        this.words = new long[(floorCount + 63) >>> 6];
+    }
+
+    public boolean add(int floor) {
+        checkFloor(floor);
+        long mask = 1L << floor;
+        int index = floor >>> 6;
+        if((words[index] & mask) != 0) {
+            return false;
+        }
+        words[index] |= mask;
+        size++;
+        version++;
+        return true;
+    }
+
+    public void remove(int floor) {
+        if(!contains(floor)) {
+            return;
+        }
+        words[floor >>> 6] &= ~(1L << floor);
+        size--;
+        version++;
+    }
+
+    public boolean contains(int floor) {
+        return floor >= 0 && floor < floorCount && (words[floor >>> 6] & (1L << floor)) != 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        for(int i = 0; i < words.length; i++) {
+            words[i] = 0;
+        }
+        size = 0;
+        currentDirection = null;
+        version++;
+    }
+
+    public int nextAbove(int floor) {
+        int from = Math.max(floor + 1, 0);
+        if(from >= floorCount) {
+            return -1;
+        }
+
+        int index = from >>> 6;
+        long word = words[index] & (-1L << from);
+        while(true) {
+            if(word != 0) {
+                return (index << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if(++index == words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    public int nextBelow(int floor) {
+        int from = Math.min(floor - 1, floorCount - 1);
+        if(from < 0) {
+            return -1;
+        }
+
+        int index = from >>> 6;
+        long word = words[index] & (-1L >>> (63 - (from & 63)));
+        while(true) {
+            if(word != 0) {
+                return (index << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+            if(index-- == 0) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    public int nextStop(int cabinFloor) {
+        if(size == 0) return cabinFloor;
+
+        int above = nextAbove(cabinFloor);
+        int below = nextBelow(cabinFloor);
+
+        if(currentDirection == null) {
+            int nearest;
+            if(contains(cabinFloor)) {
+                nearest = cabinFloor;
+            } else if(below == -1 || (above != -1 && above - cabinFloor <= cabinFloor - below)) {
+                nearest = above;
+            } else {
+                nearest = below;
+            }
+
+            currentDirection = (nearest > cabinFloor) ? Directions.UP : Directions.DOWN;
+            version++;
+            return nearest;
+        }
+
+        if(currentDirection == Directions.UP && above != -1) {
+            return above;
+        }
+
+        if(currentDirection == Directions.DOWN && below != -1) {
+            return below;
+        }
+
+        if(currentDirection == Directions.UP && below != -1) {
+            currentDirection = Directions.DOWN;
+            version++;
+            return below;
+        }
+
+        if(currentDirection == Directions.DOWN && above != -1) {
+            currentDirection = Directions.UP;
+            version++;
+            return above;
+        }
+
+        return cabinFloor;
+    }
+
+    public List<Integer> toList() {
+        List<Integer> floors = new ArrayList<>(size);
+        for(int floor = nextAbove(-1); floor != -1; floor = nextAbove(floor)) {
+            floors.add(floor);
+        }
+        return floors;
+    }
+
+    private void checkFloor(int floor) {
+        if(floor < 0 || floor >= floorCount) {
+            throw new IllegalArgumentException("Floor out of range 0.." + (floorCount - 1) + ": " + floor);
+        }
+    }
+
+    public int getFloorCount() {
+        return floorCount;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public Directions getCurrentDirection() {
+        return currentDirection;
+    }
+
+    public View view() {
+        return view;
+    }
+
+    public final class View {
+        private View() {
+        }
+
+        public boolean contains(int floor) { return FloorRequestQueue.this.contains(floor); }
+        public boolean isEmpty() { return size == 0; }
+        public int size() { return size; }
+        public int nextAbove(int floor) { return FloorRequestQueue.this.nextAbove(floor); }
+        public int nextBelow(int floor) { return FloorRequestQueue.this.nextBelow(floor); }
+        public List<Integer> toList() { return FloorRequestQueue.this.toList(); }
+        public int getVersion() { return version; }
+        public Directions getCurrentDirection() { return currentDirection; }
+    }
+}
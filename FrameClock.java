@@ -0,0 +1,193 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import javax.swing.Timer;
+
+public final class FrameClock {
+    public static final int FRAME_MS = 16;
+    public static final String TIME_SCALE_PROPERTY = "elevator.timeScale";
+    public static final double MIN_TIME_SCALE = 0.1;
+    public static final double MAX_TIME_SCALE = 1000;
+
+    private static final int MAX_STEPS_PER_TICK = 4 * (int) MAX_TIME_SCALE;
+    private static final long SKIP_BUDGET_NANOS = 100_000_000L;
+
+    private final Timer timer;
+    private final List<FrameTween> tweens = new ArrayList<>();
+    private final PriorityQueue<FrameTask> delayedTasks = new PriorityQueue<>(Comparator.comparingLong(FrameTask::getDueTime));
+    private final ArrayDeque<FrameTask> readyTasks = new ArrayDeque<>();
+    private final List<Runnable> frameListeners = new ArrayList<>();
+
+    private volatile long virtualNow = 0;
+    private double timeScale;
+    private double pendingSteps = 0;
+    private long lastTickNanos;
+    private long skipUntil = -1;
+    private Runnable onSkipFinished;
+
+    public FrameClock() {
+        this(true);
+    }
+
+    public FrameClock(boolean timerDriven) {
+        timer = timerDriven ? new Timer(FRAME_MS, e -> tick()) : null;
+        if(timer != null) {
+            timer.setCoalesce(true);
+        }
+        setTimeScale(Double.parseDouble(System.getProperty(TIME_SCALE_PROPERTY, "1")));
+    }
+
+    public void addTween(FrameTween tween) {
+        tweens.add(tween);
+        ensureRunning();
+    }
+
+    public void addFrameListener(Runnable listener) {
+        frameListeners.add(listener);
+    }
+
+    public FrameTask schedule(long delayMs, Runnable action) {
+        FrameTask task = new FrameTask(now() + delayMs, action);
+        delayedTasks.add(task);
+        ensureRunning();
+        return task;
+    }
+
+    public long now() {
+        return virtualNow;
+    }
+
+    public void setTimeScale(double scale) {
+        if(!(scale >= MIN_TIME_SCALE && scale <= MAX_TIME_SCALE)) {
+            throw new IllegalArgumentException("Time scale must be within " + MIN_TIME_SCALE + ".." +
+                MAX_TIME_SCALE + ": " + scale);
+        }
+        timeScale = scale;
+    }
+
+    public double getTimeScale() {
+        return timeScale;
+    }
+
+    public void skipTo(long virtualTime, Runnable onFinished) {
+        if(virtualTime <= virtualNow) {
+            if(onFinished != null) {
+                onFinished.run();
+            }
+            return;
+        }
+        skipUntil = virtualTime;
+        onSkipFinished = onFinished;
+        ensureRunning();
+    }
+
+    public boolean isSkipping() {
+        return skipUntil >= 0;
+    }
+
+    public void advance(long virtualMs) {
+        long until = virtualNow + virtualMs;
+        while(virtualNow < until) {
+            step();
+        }
+    }
+
+    public void clear() {
+        tweens.clear();
+        delayedTasks.clear();
+        readyTasks.clear();
+        skipUntil = -1;
+        onSkipFinished = null;
+        if(timer != null) {
+            timer.stop();
+        }
+    }
+
+    private void ensureRunning() {
+        if(timer != null && !timer.isRunning()) {
+            lastTickNanos = System.nanoTime();
+            pendingSteps = 0;
+            timer.start();
+        }
+    }
+
+    private void tick() {
+        long tickNanos = System.nanoTime();
+        long elapsedNanos = tickNanos - lastTickNanos;
+        lastTickNanos = tickNanos;
+
+        if(isSkipping()) {
+            skip(tickNanos + SKIP_BUDGET_NANOS);
+            return;
+        }
+
+        pendingSteps += elapsedNanos * timeScale / (FRAME_MS * 1_000_000.0);
+        int steps = (int) Math.min(pendingSteps, MAX_STEPS_PER_TICK);
+        pendingSteps = Math.min(pendingSteps - steps, 1);
+
+        boolean idle = false;
+        for(int i = 0; i < steps && !idle; i++) {
+            idle = !step();
+        }
+
+        for(Runnable listener : frameListeners) {
+            listener.run();
+        }
+
+        if(idle) {
+            timer.stop();
+        }
+    }
+
+    private void skip(long deadlineNanos) {
+        boolean idle = false;
+        while(virtualNow < skipUntil && !idle && System.nanoTime() < deadlineNanos) {
+            idle = !step();
+        }
+        if(idle) {
+            virtualNow = Math.max(virtualNow, skipUntil);
+        }
+        if(virtualNow < skipUntil) {
+            return;
+        }
+
+        skipUntil = -1;
+        Runnable finished = onSkipFinished;
+        onSkipFinished = null;
+        for(Runnable listener : frameListeners) {
+            listener.run();
+        }
+        if(finished != null) {
+            finished.run();
+        }
+        if(idle) {
+            timer.stop();
+        }
+    }
+
+    private boolean step() {
+        virtualNow += FRAME_MS;
+
+        if(!tweens.isEmpty()) {
+            FrameTween[] active = tweens.toArray(new FrameTween[0]);
+            tweens.clear();
+            for(FrameTween tween : active) {
+                if(tween.onFrame()) {
+                    tweens.add(tween);
+                }
+            }
+        }
+
+        while(!delayedTasks.isEmpty() && delayedTasks.peek().getDueTime() <= virtualNow) {
+            readyTasks.add(delayedTasks.poll());
+        }
+
+        while(!readyTasks.isEmpty()) {
+            readyTasks.poll().run();
+        }
+
+        return !tweens.isEmpty() || !delayedTasks.isEmpty();
+    }
+}
@@ -0,0 +1,30 @@
+public class FrameTask {
+    private final long dueTime;
+    private final Runnable action;
+    private boolean pending = true;
+
+    FrameTask(long dueTime, Runnable action) {
+        this.dueTime = dueTime;
+        this.action = action;
+    }
+
+    void run() {
+        if(!pending) {
+            return;
+        }
+        pending = false;
+        action.run();
+    }
+
+    public void cancel() {
+        pending = false;
+    }
+
+    public boolean isPending() {
+        return pending;
+    }
+
+    long getDueTime() {
+        return dueTime;
+    }
+}
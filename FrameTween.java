@@ -0,0 +1,3 @@
+public interface FrameTween {
+    boolean onFrame();
+}
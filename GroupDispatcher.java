@@ -0,0 +1,7 @@
+public interface GroupDispatcher {
+    Car assignHallCall(Bank bank, int floor, long now);
+
+    default Car assignDestinationCall(Bank bank, int origin, int destination, long now) {
+        return assignHallCall(bank, origin, now);
+    }
+}
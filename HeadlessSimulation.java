@@ -0,0 +1,559 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class HeadlessSimulation {
+    public static final long FRAME_MS = 16;
+    public static final long QUEUE_CHECK_MS = 1000;
+    public static final long END_SIMULATION_MS = 10000;
+    public static final String PER_FLOOR_REPORT_PROPERTY = "elevator.report.perFloor";
+    public static final String EVENT_LOG_PROPERTY = "elevator.eventLog";
+    public static final String DESTINATION_DISPATCH_PROPERTY = "elevator.destinationDispatch";
+
+    private final EventLoop eventLoop = new EventLoop();
+    private final Random random;
+    private final BuildingSpec spec;
+    private final Bank bank;
+    private final GroupDispatcher dispatcher;
+    private final CostModel costModel;
+    private final PassengerQueue[] passengersOnFloors;
+    private PassengerQueue[][] assignedOnFloors;
+    private boolean[][] deferredCalls;
+    private int[] deferredCallCounts;
+    private final boolean[] floorCallButtons;
+    private final PassengerMetrics metrics;
+    private TrafficGenerator trafficGenerator;
+    private boolean arrivalPending = false;
+    private SimulationEventLog eventLog;
+    private boolean destinationDispatch = false;
+
+    private boolean simulationStarted = false;
+    private boolean simulationEnded = false;
+    private long endGeneration = 0;
+
+    private long generatedPassengers = 0;
+    private long deliveredPassengers = 0;
+    private long bypassedStops = 0;
+    private int[] bypassedFloors = new int[0];
+
+    public HeadlessSimulation(long seed, BuildingSpec spec) {
+        this(seed, spec, CostModel.create(spec));
+    }
+
+    public HeadlessSimulation(long seed, BuildingSpec spec, CostModel costModel) {
+        this(seed, spec, costModel, new EtaGroupDispatcher(spec, costModel));
+    }
+
+    public HeadlessSimulation(long seed, BuildingSpec spec, CostModel costModel, GroupDispatcher dispatcher) {
+        this.random = new Random(seed);
+        this.costModel = costModel;
+        this.spec = spec;
+        this.bank = new Bank(spec.getCars(), spec.getFloors());
+        this.dispatcher = dispatcher;
+        this.floorCallButtons = new boolean[spec.getFloors()];
+        this.metrics = new PassengerMetrics(spec.getFloors(), Boolean.getBoolean(PER_FLOOR_REPORT_PROPERTY));
+        this.passengersOnFloors = new PassengerQueue[spec.getFloors()];
+        for(int i = 0; i < spec.getFloors(); i++) {
+            passengersOnFloors[i] = new PassengerQueue();
+        }
+    }
+
+    public void startSimulation() {
+        if(simulationStarted) {
+            return;
+        }
+
+        simulationStarted = true;
+        simulationEnded = false;
+
+        for(int floor = 0; floor < spec.getFloors(); floor++) {
+            floorCallButtons[floor] = true;
+        }
+
+        if(trafficGenerator != null) {
+            scheduleNextArrival();
+        } else {
+            generateRandomPassengers();
+        }
+
+        eventLoop.schedule(1000, this::checkSimulationEndConditions);
+    }
+
+    private void generateRandomPassengers() {
+        for(int floor = 0; floor < spec.getFloors(); floor++) {
+            int passengerCount = random.nextInt(6);
+            for(int i = 0; i < passengerCount; i++) {
+                Passenger passenger = new Passenger((int) generatedPassengers++, floor);
+                passenger.setCallTime(eventLoop.now());
+                if(destinationDispatch) {
+                    passenger.setTargetFloor(randomTargetFloor(floor));
+                }
+                passengersOnFloors[floor].add(passenger);
+                record(SimulationEventType.SPAWN, -1, floor, passenger.getId(), passenger.getTargetFloor());
+            }
+        }
+
+        for(int floor = 0; floor < spec.getFloors(); floor++) {
+            handleFloorCallButtonClick(floor);
+        }
+    }
+
+    private void scheduleNextArrival() {
+        long arrivalTime = trafficGenerator.nextArrivalTime(eventLoop.now());
+        arrivalPending = arrivalTime >= 0;
+        if(arrivalPending) {
+            eventLoop.scheduleAt(arrivalTime, this::spawnArrival);
+        }
+    }
+
+    private void spawnArrival() {
+        trafficGenerator.nextRoute(eventLoop.now());
+        int origin = trafficGenerator.getOrigin();
+
+        Passenger passenger = new Passenger((int) generatedPassengers++, origin);
+        passenger.setTargetFloor(trafficGenerator.getDestination());
+        passenger.setCallTime(eventLoop.now());
+        passengersOnFloors[origin].add(passenger);
+        record(SimulationEventType.SPAWN, -1, origin, passenger.getId(), passenger.getTargetFloor());
+
+        handleFloorCallButtonClick(origin);
+        scheduleNextArrival();
+    }
+
+    public void setTrafficGenerator(TrafficGenerator trafficGenerator) {
+        this.trafficGenerator = trafficGenerator;
+    }
+
+    public void setEventLog(SimulationEventLog eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    public void setDestinationDispatch(boolean destinationDispatch) {
+        this.destinationDispatch = destinationDispatch;
+        if(destinationDispatch && assignedOnFloors == null) {
+            assignedOnFloors = new PassengerQueue[spec.getCars()][spec.getFloors()];
+            deferredCalls = new boolean[spec.getCars()][spec.getFloors()];
+            deferredCallCounts = new int[spec.getCars()];
+        }
+    }
+
+    private void record(SimulationEventType type, int car, int floor, int passenger, int aux) {
+        if(eventLog != null) {
+            eventLog.append(eventLoop.now(), type, car, floor, passenger, aux);
+        }
+    }
+
+    public void run() {
+        eventLoop.run();
+    }
+
+    public void runUntil(long endTime) {
+        eventLoop.runUntil(endTime);
+    }
+
+    public void handleFloorCallButtonClick(int floor) {
+        if(destinationDispatch) {
+            registerDestinationCalls(floor, null);
+            return;
+        }
+
+        if(simulationEnded || passengersOnFloors[floor].isEmpty() || !floorCallButtons[floor]) {
+            return;
+        }
+
+        floorCallButtons[floor] = false;
+        record(SimulationEventType.CALL, -1, floor, -1, -1);
+        Car car = dispatcher.assignHallCall(bank, floor, eventLoop.now());
+        record(SimulationEventType.DISPATCH, car.getId(), floor, -1, -1);
+        car.getRequestQueue().add(floor);
+
+        if(car.canMove()) {
+            callElevatorToFloor(car, floor);
+        }
+    }
+
+    private void registerDestinationCalls(int floor, Car excluded) {
+        if(simulationEnded) {
+            return;
+        }
+
+        PassengerQueue unassigned = passengersOnFloors[floor];
+        for(int remaining = unassigned.size(); remaining > 0; remaining--) {
+            Passenger passenger = unassigned.poll();
+            Car car = dispatcher.assignDestinationCall(bank, floor, passenger.getTargetFloor(), eventLoop.now());
+            if(car == excluded) {
+                unassigned.add(passenger);
+                deferCall(car, floor);
+                continue;
+            }
+
+            record(SimulationEventType.CALL, -1, floor, passenger.getId(), passenger.getTargetFloor());
+            record(SimulationEventType.DISPATCH, car.getId(), floor, passenger.getId(), passenger.getTargetFloor());
+            passenger.setAssignedCar(car.getId());
+            car.reserve(passenger.getTargetFloor());
+            assignedQueue(car, floor).add(passenger);
+            car.getRequestQueue().add(floor);
+
+            if(car.canMove()) {
+                callElevatorToFloor(car, floor);
+            }
+        }
+    }
+
+    private void deferCall(Car car, int floor) {
+        if(!deferredCalls[car.getId()][floor]) {
+            deferredCalls[car.getId()][floor] = true;
+            deferredCallCounts[car.getId()]++;
+        }
+    }
+
+    private void registerDeferredCalls(Car car) {
+        boolean[] deferred = deferredCalls[car.getId()];
+        for(int floor = 0; floor < deferred.length && deferredCallCounts[car.getId()] > 0; floor++) {
+            if(deferred[floor]) {
+                deferred[floor] = false;
+                deferredCallCounts[car.getId()]--;
+                registerDestinationCalls(floor, null);
+            }
+        }
+    }
+
+    private boolean isFull(Car car) {
+        return car.getPassengersInElevator().size() >= spec.getCapacity();
+    }
+
+    private void releaseReservations(Car car, int floor) {
+        PassengerQueue assigned = assignedOnFloors[car.getId()][floor];
+        if(assigned == null) {
+            return;
+        }
+        Passenger passenger;
+        while((passenger = assigned.poll()) != null) {
+            passenger.setAssignedCar(-1);
+            car.cancelReservation(passenger.getTargetFloor());
+            passengersOnFloors[floor].add(passenger);
+        }
+    }
+
+    private boolean hasReservationsAt(Car car, int floor) {
+        PassengerQueue assigned = assignedOnFloors[car.getId()][floor];
+        return assigned != null && !assigned.isEmpty();
+    }
+
+    private PassengerQueue assignedQueue(Car car, int floor) {
+        PassengerQueue[] byFloor = assignedOnFloors[car.getId()];
+        if(byFloor[floor] == null) {
+            byFloor[floor] = new PassengerQueue(4);
+        }
+        return byFloor[floor];
+    }
+
+    private int randomTargetFloor(int originFloor) {
+        int targetFloor = random.nextInt(spec.getFloors() - 1);
+        return targetFloor >= originFloor ? targetFloor + 1 : targetFloor;
+    }
+
+    public void addFloorTarget(Car car, int targetFloor) {
+        if(simulationEnded) {
+            return;
+        }
+
+        FloorRequestQueue requestQueue = car.getRequestQueue();
+        if(!requestQueue.contains(targetFloor) && targetFloor != car.getCabinFloor()) {
+            requestQueue.add(targetFloor);
+
+            if(car.canMove()) {
+                callElevatorToFloor(car, targetFloor);
+            }
+        }
+    }
+
+    public void processFloorRequestQueue(Car car) {
+        FloorRequestQueue requestQueue = car.getRequestQueue();
+        if(requestQueue.isEmpty() || car.isMoving() || car.isTransferring()) {
+            return;
+        }
+
+        if(requestQueue.contains(car.getCabinFloor())) {
+            requestQueue.remove(car.getCabinFloor());
+            floorCallButtons[car.getCabinFloor()] = true;
+            record(SimulationEventType.REARM, car.getId(), car.getCabinFloor(), -1, -1);
+
+            if(destinationDispatch && hasReservationsAt(car, car.getCabinFloor()) && !isFull(car)) {
+                callElevatorToFloor(car, car.getCabinFloor());
+                return;
+            }
+        }
+
+        if(requestQueue.isEmpty()) {
+            handleFloorCallButtonClick(car.getCabinFloor());
+            return;
+        }
+
+        int bypassed = 0;
+        int nextFloor = requestQueue.nextStop(car.getCabinFloor());
+        if(isFull(car)) {
+            while(!hasRiderFor(car, nextFloor) && requestQueue.size() > 1) {
+                requestQueue.remove(nextFloor);
+                if(bypassed == bypassedFloors.length) {
+                    bypassedFloors = Arrays.copyOf(bypassedFloors, Math.max(4, bypassed * 2));
+                }
+                bypassedFloors[bypassed++] = nextFloor;
+                nextFloor = requestQueue.nextStop(car.getCabinFloor());
+            }
+        }
+        requestQueue.remove(nextFloor);
+
+        callElevatorToFloor(car, nextFloor);
+
+        for(int i = 0; i < bypassed; i++) {
+            int floor = bypassedFloors[i];
+            bypassedStops++;
+            if(destinationDispatch) {
+                record(SimulationEventType.REARM, car.getId(), floor, -1, -1);
+                releaseReservations(car, floor);
+                registerDestinationCalls(floor, car);
+                continue;
+            }
+            if(dispatcher.assignHallCall(bank, floor, eventLoop.now()) == car) {
+                requestQueue.add(floor);
+                continue;
+            }
+            floorCallButtons[floor] = true;
+            record(SimulationEventType.REARM, car.getId(), floor, -1, -1);
+            handleFloorCallButtonClick(floor);
+        }
+    }
+
+    private boolean hasRiderFor(Car car, int floor) {
+        for(Passenger passenger : car.getPassengersInElevator()) {
+            if(passenger.getTargetFloor() == floor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void callElevatorToFloor(Car car, int floor) {
+        if(car.isMoving() || car.isTransferring()) {
+            return;
+        }
+
+        int departureFloor = car.getCabinFloor();
+        long travelTime = Math.max(FRAME_MS, costModel.travelTime(departureFloor, floor));
+        car.depart(floor, eventLoop.now() + travelTime);
+        record(SimulationEventType.DEPART, car.getId(), floor, -1, departureFloor);
+        eventLoop.schedule(travelTime, () -> arriveAtFloor(car, floor));
+
+        if(departureFloor != floor) {
+            if(destinationDispatch) {
+                releaseReservations(car, departureFloor);
+                registerDestinationCalls(departureFloor, isFull(car) ? car : null);
+            } else {
+                handleFloorCallButtonClick(departureFloor);
+            }
+        }
+    }
+
+    private void arriveAtFloor(Car car, int floor) {
+        car.arrive(floor);
+        record(SimulationEventType.ARRIVE, car.getId(), floor, -1, -1);
+
+        List<Passenger> alighting = car.removePassengersFor(floor);
+
+        int availableSpaces = spec.getCapacity() - car.getPassengersInElevator().size();
+        List<Passenger> boarding = new ArrayList<>(Math.max(availableSpaces, 0));
+        if(destinationDispatch) {
+            assignedQueue(car, floor).drainTo(boarding, availableSpaces);
+        } else {
+            passengersOnFloors[floor].drainTo(boarding, availableSpaces);
+        }
+
+        if(!car.getRequestQueue().contains(floor)) {
+            floorCallButtons[floor] = true;
+        }
+
+        startWaitingTimer(car);
+
+        if(!alighting.isEmpty() || !boarding.isEmpty()) {
+            car.setTransferring(true);
+            eventLoop.schedule(spec.getPassengerTransferMs(), () -> finishTransfer(car, floor, alighting, boarding));
+        }
+    }
+
+    private void finishTransfer(Car car, int floor, List<Passenger> alighting, List<Passenger> boarding) {
+        deliveredPassengers += alighting.size();
+        for(Passenger passenger : alighting) {
+            passenger.setInElevator(false);
+            passenger.setAlightTime(eventLoop.now());
+            record(SimulationEventType.ALIGHT, car.getId(), floor, passenger.getId(), passenger.getOriginFloor());
+            if(passenger.getAssignedCar() != -1) {
+                car.dropOff(floor);
+            }
+            metrics.recordDelivery(passenger);
+        }
+
+        for(Passenger passenger : boarding) {
+            passenger.setInElevator(true);
+            passenger.setBoardTime(eventLoop.now());
+            if(passenger.getAssignedCar() != -1) {
+                car.pickUp();
+            }
+            if(passenger.getTargetFloor() == -1) {
+                passenger.setTargetFloor(randomTargetFloor(floor));
+            }
+            record(SimulationEventType.BOARD, car.getId(), floor, passenger.getId(), passenger.getTargetFloor());
+            car.getPassengersInElevator().add(passenger);
+        }
+
+        car.setTransferring(false);
+
+        for(Passenger passenger : boarding) {
+            addFloorTarget(car, passenger.getTargetFloor());
+        }
+        if(destinationDispatch && deferredCallCounts[car.getId()] > 0 && !isFull(car)) {
+            registerDeferredCalls(car);
+        }
+
+        checkSimulationEndConditions();
+        eventLoop.schedule(QUEUE_CHECK_MS, () -> {
+            if(!car.isTransferring() && !car.isMoving()) {
+                processFloorRequestQueue(car);
+            }
+        });
+    }
+
+    private void startWaitingTimer(Car car) {
+        long generation = car.startDwell(eventLoop.now() + spec.getDoorDwellMs());
+        eventLoop.schedule(spec.getDoorDwellMs(), () -> {
+            if(!car.finishDwell(generation)) {
+                return;
+            }
+            if(!car.isTransferring()) {
+                checkSimulationEndConditions();
+                processFloorRequestQueue(car);
+            }
+        });
+    }
+
+    public void checkSimulationEndConditions() {
+        if(simulationEnded) return;
+
+        long generation = ++endGeneration;
+        if(bank.isIdle() && !arrivalPending) {
+            eventLoop.schedule(END_SIMULATION_MS, () -> {
+                if(generation == endGeneration && bank.isIdle()) {
+                    endSimulation();
+                }
+            });
+        }
+    }
+
+    private void endSimulation() {
+        simulationEnded = true;
+        simulationStarted = false;
+        for(Car car : bank.getCars()) {
+            car.getRequestQueue().clear();
+        }
+        eventLoop.clear();
+    }
+
+    public boolean isSimulationEnded() { return simulationEnded; }
+    public long getSimulatedTime() { return eventLoop.now(); }
+    public long getProcessedEvents() { return eventLoop.getProcessedEvents(); }
+    public long getGeneratedPassengers() { return generatedPassengers; }
+    public long getDeliveredPassengers() { return deliveredPassengers; }
+    public long getTrips() { return bank.getTrips(); }
+    public long getBypassedStops() { return bypassedStops; }
+    public PassengerMetrics getMetrics() { return metrics; }
+    public Bank getBank() { return bank; }
+    public BuildingSpec getSpec() { return spec; }
+
+    public static void main(String[] args) throws IOException {
+        List<String> positional = new ArrayList<>();
+        TrafficProfile profile = null;
+        long startOfDayMs = 0;
+        for(int i = 0; i < args.length; i++) {
+            if(!args[i].startsWith("--")) {
+                positional.add(args[i]);
+                continue;
+            }
+
+            int separator = args[i].indexOf('=');
+            String option = separator < 0 ? args[i] : args[i].substring(0, separator);
+            if(separator < 0 && i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = (separator < 0 ? args[++i] : args[i].substring(separator + 1)).trim();
+            switch(option) {
+                case "--profile":
+                    profile = TrafficProfile.valueOf(value.toUpperCase());
+                    break;
+                case "--start-of-day":
+                    startOfDayMs = LocalTime.parse(value).toSecondOfDay() * 1000L;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+
+        int runs = positional.size() > 0 ? Integer.parseInt(positional.get(0)) : 1000;
+        double arrivalsPerHour = positional.size() > 1 ? Double.parseDouble(positional.get(1)) : 0;
+        double hours = positional.size() > 2 ? Double.parseDouble(positional.get(2)) : 24;
+        String eventLogPath = System.getProperty(EVENT_LOG_PROPERTY);
+        boolean destinationDispatch = Boolean.getBoolean(DESTINATION_DISPATCH_PROPERTY);
+        BuildingSpec spec = BuildingSpec.load();
+
+        long simulatedTime = 0;
+        long events = 0;
+        long delivered = 0;
+        long generated = 0;
+        long trips = 0;
+        long bypassed = 0;
+        PassengerMetrics metrics = new PassengerMetrics(spec.getFloors(), Boolean.getBoolean(PER_FLOOR_REPORT_PROPERTY));
+        long startNanos = System.nanoTime();
+
+        for(int seed = 0; seed < runs; seed++) {
+            HeadlessSimulation simulation = new HeadlessSimulation(seed, spec);
+            simulation.setDestinationDispatch(destinationDispatch);
+            if(arrivalsPerHour > 0) {
+                simulation.setTrafficGenerator(new TrafficGenerator(seed, spec.getFloors(), arrivalsPerHour,
+                    startOfDayMs, (long) (hours * 3_600_000), profile));
+            }
+            SimulationEventLog eventLog = null;
+            if(eventLogPath != null) {
+                eventLog = new SimulationEventLog(Paths.get(runs == 1 ? eventLogPath : eventLogPath + "." + seed));
+                simulation.setEventLog(eventLog);
+            }
+            simulation.startSimulation();
+            simulation.run();
+            if(eventLog != null) {
+                eventLog.close();
+            }
+
+            simulatedTime += simulation.getSimulatedTime();
+            events += simulation.getProcessedEvents();
+            delivered += simulation.getDeliveredPassengers();
+            generated += simulation.getGeneratedPassengers();
+            trips += simulation.getTrips();
+            bypassed += simulation.getBypassedStops();
+            metrics.add(simulation.getMetrics());
+        }
+
+        double wallSeconds = (System.nanoTime() - startNanos) / 1e9;
+        double simulatedHours = simulatedTime / 3_600_000.0;
+        System.out.println(spec + (destinationDispatch ? " dispatch=destination" : " dispatch=collective") +
+            " costModel=" + System.getProperty(CostModel.COST_MODEL_PROPERTY, "linear") +
+            (arrivalsPerHour > 0 ? " profile=" + (profile != null ? profile : "timeOfDay") +
+                " startOfDay=" + LocalTime.ofSecondOfDay(startOfDayMs / 1000) : ""));
+        System.out.printf("runs=%d passengers=%d/%d events=%d trips=%d bypassed=%d%n",
+            runs, delivered, generated, events, trips, bypassed);
+        System.out.printf("simulated=%.1f h wall=%.3f s rate=%.1f simulated h/s, %.0f ns/event%n",
+            simulatedHours, wallSeconds, simulatedHours / wallSeconds, wallSeconds * 1e9 / events);
+        metrics.printReport(System.out);
+    }
+}
@@ -0,0 +1,90 @@
+public class KinematicCostModel implements CostModel {
+    private static final double GRAVITY = 9.81;
+
+    private final BuildingSpec spec;
+    private final double floorHeight;
+    private final double maxSpeed;
+    private final double acceleration;
+    private final double cabinMass;
+    private final double riderMass;
+    private final double counterweightMass;
+    private final long[] travelTimes;
+
+    public KinematicCostModel(BuildingSpec spec, double floorHeight, double maxSpeed, double acceleration,
+                              double cabinMass, double riderMass) {
+        if(floorHeight <= 0 || maxSpeed <= 0 || acceleration <= 0) {
+            throw new IllegalArgumentException("Invalid kinematics: floorHeight=" + floorHeight +
+                " maxSpeed=" + maxSpeed + " acceleration=" + acceleration);
+        }
+
+        this.spec = spec;
+        this.floorHeight = floorHeight;
+        this.maxSpeed = maxSpeed;
+        this.acceleration = acceleration;
+        this.cabinMass = cabinMass;
+        this.riderMass = riderMass;
+        this.counterweightMass = cabinMass + 0.45 * spec.getCapacity() * riderMass;
+
+        travelTimes = new long[spec.getFloors()];
+        for(int distance = 1; distance < travelTimes.length; distance++) {
+            travelTimes[distance] = Math.round(profileSeconds(distance * floorHeight) * 1000);
+        }
+    }
+
+    public static KinematicCostModel fromProperties(BuildingSpec spec) {
+        return new KinematicCostModel(spec,
+            readDouble("floorHeight", 3.5),
+            readDouble("maxSpeed", 2.5),
+            readDouble("acceleration", 1.0),
+            readDouble("cabinMass", 1000),
+            readDouble("riderMass", 75));
+    }
+
+    private static double readDouble(String key, double defaultValue) {
+        String value = System.getProperty("elevator.kinematic." + key);
+        if(value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch(NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value, e);
+        }
+    }
+
+    private double profileSeconds(double distance) {
+        double rampDistance = maxSpeed * maxSpeed / acceleration;
+        if(distance < rampDistance) {
+            return 2 * Math.sqrt(distance / acceleration);
+        }
+        return distance / maxSpeed + maxSpeed / acceleration;
+    }
+
+    private double peakSpeed(double distance) {
+        return Math.min(maxSpeed, Math.sqrt(distance * acceleration));
+    }
+
+    @Override
+    public long travelTime(int fromFloor, int toFloor) {
+        return travelTimes[Math.abs(toFloor - fromFloor)];
+    }
+
+    @Override
+    public long stopTime() {
+        return spec.getDoorDwellMs() + spec.getPassengerTransferMs();
+    }
+
+    @Override
+    public double travelEnergy(int fromFloor, int toFloor, int load) {
+        if(fromFloor == toFloor) {
+            return 0;
+        }
+
+        double distance = Math.abs(toFloor - fromFloor) * floorHeight;
+        double imbalance = cabinMass + load * riderMass - counterweightMass;
+        double lift = (toFloor > fromFloor ? imbalance : -imbalance) * GRAVITY * distance;
+        double speed = peakSpeed(distance);
+        double kinetic = (cabinMass + load * riderMass + counterweightMass) * speed * speed;
+        return Math.max(0, lift) + kinetic;
+    }
+}
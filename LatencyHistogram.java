@@ -0,0 +1,85 @@
+import java.util.Arrays;
+
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_HALF = 1 << (SUB_BUCKET_BITS - 1);
+    private static final int MAX_MAGNITUDE = 40;
+
+    private long[] counts = new long[2 * SUB_BUCKET_HALF];
+    private long totalCount = 0;
+    private long sum = 0;
+    private long max = 0;
+
+    public void record(long value) {
+        long clamped = Math.min(Math.max(value, 0), (1L << (MAX_MAGNITUDE + 1)) - 1);
+        int index = indexFor(clamped);
+        ensureCapacity(index + 1);
+        counts[index]++;
+        totalCount++;
+        sum += clamped;
+        max = Math.max(max, clamped);
+    }
+
+    public void add(LatencyHistogram other) {
+        ensureCapacity(other.counts.length);
+        for(int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        for(int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+        totalCount = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    public long getValueAtPercentile(double percentile) {
+        if(totalCount == 0) {
+            return 0;
+        }
+
+        long threshold = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for(int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if(seen >= threshold) {
+                return Math.min(highestEquivalentValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    private void ensureCapacity(int length) {
+        if(length > counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(length, counts.length + SUB_BUCKET_HALF * 2));
+        }
+    }
+
+    public long getTotalCount() { return totalCount; }
+    public long getMax() { return max; }
+    public double getMean() { return totalCount == 0 ? 0 : (double) sum / totalCount; }
+
+    private static int indexFor(long value) {
+        int magnitude = 63 - Long.numberOfLeadingZeros(value | 1);
+        if(magnitude < SUB_BUCKET_BITS) {
+            return (int) value;
+        }
+        int shift = magnitude - SUB_BUCKET_BITS + 1;
+        return (shift << (SUB_BUCKET_BITS - 1)) + (int) (value >>> shift);
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if(index < 2 * SUB_BUCKET_HALF) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF - 1;
+        long subBucket = index - ((long) shift << (SUB_BUCKET_BITS - 1));
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,22 @@
+public class LinearCostModel implements CostModel {
+    private final BuildingSpec spec;
+
+    public LinearCostModel(BuildingSpec spec) {
+        this.spec = spec;
+    }
+
+    @Override
+    public long travelTime(int fromFloor, int toFloor) {
+        return Math.abs(toFloor - fromFloor) * spec.getFloorTravelMs();
+    }
+
+    @Override
+    public long stopTime() {
+        return spec.getDoorDwellMs() + spec.getPassengerTransferMs();
+    }
+
+    @Override
+    public double travelEnergy(int fromFloor, int toFloor, int load) {
+        return Math.abs(toFloor - fromFloor);
+    }
+}
@@ -1,16 +1,29 @@
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JTextArea;
+import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Font;
 import java.awt.GridBagLayout;
 import java.awt.GridBagConstraints;
 import java.awt.Insets;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 
 public class Main {
+    private static final String[] TIME_SCALES = {"0.1", "0.5", "1", "2", "5", "10", "100", "1000"};
+    
     public static void main(String[] args) {
+        BuildingSpec buildingSpec = BuildingSpec.load();
         SwingUtilities.invokeLater(() -> {
             JFrame frame = new JFrame("ElevatorGame");
             frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -22,7 +35,7 @@ public class Main {
             JPanel centerPanel = new JPanel(new BorderLayout());
             centerPanel.setMaximumSize(new Dimension(600,800));
             centerPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-            ElevatorTrack elevatorTrack = ElevatorTrack.getElevatorTrack();
+            ElevatorTrack elevatorTrack = new ElevatorTrack(buildingSpec);
             centerPanel.add(elevatorTrack, BorderLayout.CENTER);
             
             gbc.gridx = 1; gbc.gridy = 0;
@@ -33,7 +46,7 @@ public class Main {
             
             JPanel leftPanel = new JPanel();
             leftPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 10));
-            ElevatorButtons elevatorButtons = new ElevatorButtons();
+            ElevatorButtons elevatorButtons = new ElevatorButtons(elevatorTrack);
             leftPanel.add(elevatorButtons);
             
             gbc.gridx = 0; gbc.gridy = 0;
@@ -44,7 +57,7 @@ public class Main {
             
             JPanel rightPanel = new JPanel();
             rightPanel.setBorder(BorderFactory.createEmptyBorder(20, 10, 20, 20));
-            DestinationPanel callPanel = DestinationPanel.getDestinationPanel();
+            DestinationPanel callPanel = elevatorTrack.getDestinationPanel();
             rightPanel.add(callPanel);
             
             gbc.gridx = 2; gbc.gridy = 0;
@@ -58,14 +71,63 @@ public class Main {
             startButton.addActionListener(e -> {
                 startButton.setEnabled(false);
                 elevatorTrack.startSimulation();  
+                TrafficFeed trafficFeed = TrafficFeed.fromProperties(elevatorTrack, System.nanoTime());
+                if(trafficFeed != null) {
+                    trafficFeed.start();
+                }
                    
             });
             
+            JComboBox<String> timeScale = new JComboBox<>(TIME_SCALES);
+            timeScale.setEditable(true);
+            timeScale.setSelectedItem(System.getProperty(FrameClock.TIME_SCALE_PROPERTY, "1"));
+            timeScale.addActionListener(e -> {
+                try {
+                    elevatorTrack.setTimeScale(Double.parseDouble(String.valueOf(timeScale.getSelectedItem()).trim()));
+                } catch(IllegalArgumentException ex) {
+                    timeScale.setSelectedItem("1");
+                }
+            });
+            
+            JTextField skipMinutes = new JTextField("10", 4);
+            JButton skipButton = new JButton("Skip min");
+            skipButton.addActionListener(e -> {
+                try {
+                    elevatorTrack.skipAhead((long) (Double.parseDouble(skipMinutes.getText().trim()) * 60_000));
+                } catch(NumberFormatException ex) {
+                    skipMinutes.setText("10");
+                }
+            });
+            
+            JPanel timePanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+            timePanel.add(timeScale);
+            timePanel.add(skipMinutes);
+            timePanel.add(skipButton);
+            
+            JLabel statusLabel = new JLabel();
+            statusLabel.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
+            elevatorTrack.getEventBus().subscribe(ElevatorEvent.SIMULATION_ENDED, () -> {
+                ByteArrayOutputStream report = new ByteArrayOutputStream();
+                elevatorTrack.getPassengerManager().getMetrics().printReport(new PrintStream(report, true, StandardCharsets.UTF_8));
+                JTextArea reportText = new JTextArea(report.toString(StandardCharsets.UTF_8));
+                reportText.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+                reportText.setEditable(false);
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(frame, reportText, "Passenger times",
+                    JOptionPane.INFORMATION_MESSAGE));
+            });
+            elevatorTrack.getEventBus().subscribe(ElevatorEvent.COMMAND_REJECTED, () -> statusLabel.setText(
+                "Rejected " + elevatorTrack.getRejectedCommands() + ": " + elevatorTrack.getLastRejection().getMessage()));
+            
+            JPanel bottomPanel = new JPanel(new BorderLayout());
+            bottomPanel.add(statusLabel, BorderLayout.WEST);
+            bottomPanel.add(startButton, BorderLayout.CENTER);
+            bottomPanel.add(timePanel, BorderLayout.EAST);
+            
             elevatorTrack.setElevatorButtons(elevatorButtons);
             elevatorTrack.setStartButton(startButton);
             
             frame.add(mainPanel, BorderLayout.CENTER);
-            frame.add(startButton, BorderLayout.SOUTH);
+            frame.add(bottomPanel, BorderLayout.SOUTH);
             frame.setResizable(true);
             frame.setVisible(true);
         });
@@ -0,0 +1,133 @@
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+public class MonteCarloRunner {
+    public static final String POLICIES_PROPERTY = "mc.policies";
+    public static final String PARALLELISM_PROPERTY = "mc.parallelism";
+
+    private static final double Z_95 = 1.96;
+
+    private final BuildingSpec spec;
+    private final double arrivalsPerHour;
+    private final long durationMs;
+    private final Map<DispatchPolicy, PolicyStatistics> statistics = new EnumMap<>(DispatchPolicy.class);
+
+    public MonteCarloRunner(BuildingSpec spec, double arrivalsPerHour, long durationMs, List<DispatchPolicy> policies) {
+        this.spec = spec;
+        this.arrivalsPerHour = arrivalsPerHour;
+        this.durationMs = durationMs;
+        for(DispatchPolicy policy : policies) {
+            statistics.put(policy, new PolicyStatistics());
+        }
+    }
+
+    public void run(int seeds, ForkJoinPool pool) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(seeds * statistics.size());
+        for(int seed = 0; seed < seeds; seed++) {
+            for(DispatchPolicy policy : statistics.keySet()) {
+                final long runSeed = seed;
+                tasks.add(pool.submit(() -> runOne(policy, runSeed)));
+            }
+        }
+        for(ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    private void runOne(DispatchPolicy policy, long seed) {
+        HeadlessSimulation simulation = policy.createSimulation(seed, spec);
+        if(arrivalsPerHour > 0) {
+            simulation.setTrafficGenerator(new TrafficGenerator(seed, spec.getFloors(), arrivalsPerHour, 0, durationMs));
+        }
+        simulation.startSimulation();
+        simulation.run();
+        statistics.get(policy).record(simulation);
+    }
+
+    public void printReport() {
+        System.out.printf("%-12s %6s %12s %22s %22s %22s %10s%n",
+            "policy", "runs", "passengers", "wait mean ms", "journey mean ms", "journey p95 ms", "trips/run");
+        for(Map.Entry<DispatchPolicy, PolicyStatistics> entry : statistics.entrySet()) {
+            PolicyStatistics stats = entry.getValue();
+            long runs = stats.runs.sum();
+            System.out.printf("%-12s %6d %12d %22s %22s %22s %10.1f%n",
+                entry.getKey(), runs, stats.delivered.sum(),
+                stats.wait.format(runs), stats.journey.format(runs), stats.journeyP95.format(runs),
+                runs == 0 ? 0.0 : (double) stats.trips.sum() / runs);
+        }
+    }
+
+    private static final class PolicyStatistics {
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder trips = new LongAdder();
+        private final Sample wait = new Sample();
+        private final Sample journey = new Sample();
+        private final Sample journeyP95 = new Sample();
+
+        private void record(HeadlessSimulation simulation) {
+            PassengerMetrics metrics = simulation.getMetrics();
+            runs.increment();
+            delivered.add(simulation.getDeliveredPassengers());
+            trips.add(simulation.getTrips());
+            wait.add(metrics.getWaitTime().getMean());
+            journey.add(metrics.getJourneyTime().getMean());
+            journeyP95.add(metrics.getJourneyTime().getValueAtPercentile(95));
+        }
+    }
+
+    private static final class Sample {
+        private final DoubleAdder sum = new DoubleAdder();
+        private final DoubleAdder sumOfSquares = new DoubleAdder();
+
+        private void add(double value) {
+            sum.add(value);
+            sumOfSquares.add(value * value);
+        }
+
+        private String format(long count) {
+            if(count == 0) {
+                return "-";
+            }
+            double mean = sum.sum() / count;
+            double variance = count > 1 ? Math.max(0, (sumOfSquares.sum() - count * mean * mean) / (count - 1)) : 0;
+            double halfWidth = Z_95 * Math.sqrt(variance / count);
+            return String.format("%.0f +- %.0f", mean, halfWidth);
+        }
+    }
+
+    public static void main(String[] args) {
+        int seeds = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        double arrivalsPerHour = args.length > 1 ? Double.parseDouble(args[1]) : 0;
+        double hours = args.length > 2 ? Double.parseDouble(args[2]) : 24;
+        int parallelism = Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors());
+
+        List<DispatchPolicy> policies = new ArrayList<>();
+        for(String name : System.getProperty(POLICIES_PROPERTY, "ETA,NEAREST_CAR,DESTINATION").split(",")) {
+            policies.add(DispatchPolicy.valueOf(name.trim()));
+        }
+
+        BuildingSpec spec = BuildingSpec.load();
+        MonteCarloRunner runner = new MonteCarloRunner(spec, arrivalsPerHour, (long) (hours * 3_600_000), policies);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long startNanos = System.nanoTime();
+        try {
+            runner.run(seeds, pool);
+        } finally {
+            pool.shutdown();
+        }
+        double wallSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+        System.out.println(spec);
+        System.out.printf("seeds=%d policies=%d parallelism=%d wall=%.3f s rate=%.1f runs/s%n",
+            seeds, policies.size(), parallelism, wallSeconds, seeds * policies.size() / wallSeconds);
+        runner.printReport();
+    }
+}
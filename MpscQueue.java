@@ -0,0 +1,45 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+public class MpscQueue<T> {
+    private final AtomicReference<Node<T>> tail;
+    private Node<T> head;
+
+    public MpscQueue() {
+        Node<T> stub = new Node<>(null);
+        head = stub;
+        tail = new AtomicReference<>(stub);
+    }
+
+    public void offer(T value) {
+        if(value == null) {
+            throw new NullPointerException("MpscQueue does not accept null elements");
+        }
+        Node<T> node = new Node<>(value);
+        Node<T> previous = tail.getAndSet(node);
+        previous.next = node;
+    }
+
+    public T poll() {
+        Node<T> next = head.next;
+        if(next == null) {
+            return null;
+        }
+        T value = next.value;
+        next.value = null;
+        head = next;
+        return value;
+    }
+
+    public boolean isEmpty() {
+        return head.next == null;
+    }
+
+    private static final class Node<T> {
+        private T value;
+        private volatile Node<T> next;
+
+        private Node(T value) {
+            this.value = value;
+        }
+    }
+}
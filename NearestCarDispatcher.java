@@ -0,0 +1,29 @@
+public class NearestCarDispatcher implements GroupDispatcher {
+    @Override
+    public Car assignHallCall(Bank bank, int floor, long now) {
+        Car best = bank.getCar(0);
+        int bestScore = Integer.MAX_VALUE;
+
+        for(Car car : bank.getCars()) {
+            if(car.getRequestQueue().contains(floor)) {
+                return car;
+            }
+
+            int position = car.isMoving() ? car.getDestinationFloor() : car.getCabinFloor();
+            int score = Math.abs(floor - position);
+
+            Directions direction = car.getRequestQueue().getCurrentDirection();
+            boolean behindCar = (direction == Directions.UP && floor < position) ||
+                                (direction == Directions.DOWN && floor > position);
+            if(behindCar && !car.getRequestQueue().isEmpty()) {
+                score += car.getRequestQueue().getFloorCount();
+            }
+
+            if(score < bestScore) {
+                bestScore = score;
+                best = car;
+            }
+        }
+        return best;
+    }
+}
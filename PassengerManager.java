@@ -1,61 +1,81 @@
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
-import javax.swing.Timer;
 
 public class PassengerManager {
     private final ElevatorTrack elevatorTrack;
-    private HashMap<Integer, List<Passenger>> passengersOnFloors;
+    private PassengerQueue[] passengersOnFloors;
     private List<Passenger> passengersInElevator;
-    private final int MAX_CABIN_CAPACITY = 5;
+    private List<Passenger> passengersInElevatorView;
+    private final int maxCabinCapacity;
+    private int nextPassengerId = 0;
+    private int cabinVersion = 0;
+    private PassengerMetrics metrics;
+    private final HashMap<Integer, PassengerView> views = new HashMap<>();
     
     public PassengerManager(ElevatorTrack elevatorTrack) {
         this.elevatorTrack = elevatorTrack;
+        this.maxCabinCapacity = elevatorTrack.getBuildingSpec().getCapacity();
         initializePassengers();
     }
     
     private void initializePassengers() {
-        passengersOnFloors = new HashMap<>();
+        passengersOnFloors = new PassengerQueue[elevatorTrack.getBuildingSpec().getFloors()];
         passengersInElevator = new ArrayList<>();
+        passengersInElevatorView = Collections.unmodifiableList(passengersInElevator);
+        metrics = new PassengerMetrics(passengersOnFloors.length, true);
         
-        for(int i = 0; i <= 10; i++) {
-            passengersOnFloors.put(i, new ArrayList<>());
+        for(int i = 0; i < passengersOnFloors.length; i++) {
+            passengersOnFloors[i] = new PassengerQueue();
         }
     }
     
     public void generateRandomPassenger() {
-        for(int floor = 0; floor <= 10; floor++) {
+        for(int floor = 0; floor < elevatorTrack.getBuildingSpec().getFloors(); floor++) {
             int passengerCount = (int)(Math.random() * 6);
-            List<Passenger> floorPassengers = passengersOnFloors.get(floor);
+            PassengerQueue floorPassengers = passengersOnFloors[floor];
             
             for(int i = 0; i < passengerCount; i++) {
-                Passenger passenger = new Passenger(floor);
+                Passenger passenger = new Passenger(nextPassengerId++, floor);
+                views.put(passenger.getId(), new PassengerView());
+                passenger.setCallTime(elevatorTrack.getFrameClock().now());
                 floorPassengers.add(passenger);
             }
         }
     }
     
+    public void addPassenger(int floor) {
+        if(floor < 0 || floor >= passengersOnFloors.length) {
+            throw new IllegalArgumentException("No such floor: " + floor);
+        }
+        if(!elevatorTrack.getSimulationController().isSimulationStarted()) {
+            return;
+        }
+        
+        Passenger passenger = new Passenger(nextPassengerId++, floor);
+        views.put(passenger.getId(), new PassengerView());
+        passenger.setCallTime(elevatorTrack.getFrameClock().now());
+        passengersOnFloors[floor].add(passenger);
+    }
+    
     public void loadPassengersAutomatically(int floor) {
-        List<Passenger> floorPassengers = passengersOnFloors.get(floor);
+        PassengerQueue floorPassengers = passengersOnFloors[floor];
         
-        if(floorPassengers.isEmpty() || passengersInElevator.size() >= MAX_CABIN_CAPACITY || 
+        if(floorPassengers.isEmpty() || passengersInElevator.size() >= maxCabinCapacity || 
            elevatorTrack.getAnimationController().isAnimationRunning()) {
             return;
         }
         
-        int availableSpaces = MAX_CABIN_CAPACITY - passengersInElevator.size();
+        int availableSpaces = maxCabinCapacity - passengersInElevator.size();
         int passengersToBoard = Math.min(availableSpaces, floorPassengers.size());
         
-        java.util.List<Passenger> boardingPassengers = new ArrayList<>();
-        for(int i = 0; i < passengersToBoard; i++) {
-            Passenger enteringPassenger = floorPassengers.remove(0);
-            boardingPassengers.add(enteringPassenger);
-        }
+        List<Passenger> boardingPassengers = new ArrayList<>(passengersToBoard);
+        floorPassengers.drainTo(boardingPassengers, passengersToBoard);
         
         elevatorTrack.getAnimationController().animateMultiplePassengersBoarding(boardingPassengers, floor);
-        elevatorTrack.repaint();
     }
     
    public void animatePassengerExit() {
@@ -75,32 +95,23 @@ public class PassengerManager {
     }
     
     Rectangle cabinBounds = elevatorTrack.getCabinBounds();
-    int passengerSize = 6;
-    int startX = cabinBounds.x + 5;
-    int startY = cabinBounds.y + 5;
-    int cols = (cabinBounds.width - 10) / (passengerSize + 2);
-    
-    for(int i = 0; i < Math.min(passengersInElevator.size(), 20); i++) {
-        int x = startX + (i % cols) * (passengerSize + 2);
-        int y = startY + (i / cols) * (passengerSize + 2);
-        
-        Rectangle passengerBounds = new Rectangle(x, y, passengerSize, passengerSize);
-        
-        if(passengerBounds.contains(clickPoint)) {
-            Passenger exitingPassenger = passengersInElevator.get(i);
-            Point startPos = new Point(x, y);
-            Point endPos = new Point(cabinBounds.x + cabinBounds.width + 50, y);
-            
-            exitingPassenger.startAnimation(startPos, endPos, "exiting");
-            elevatorTrack.getAnimationController().getAnimatingPassenger().add(exitingPassenger);
-            passengersInElevator.remove(i);
-            
-            elevatorTrack.getAnimationController().startPassengerAnimation();
-            
-            return;
-        }
+    int slot = TrackHitIndex.cabinSlotAt(cabinBounds, clickPoint.x, clickPoint.y, passengersInElevator.size());
+    if(slot == -1) {
+        return;
     }
     
+    int x = TrackHitIndex.getCabinSlotX(cabinBounds, slot);
+    int y = TrackHitIndex.getCabinSlotY(cabinBounds, slot);
+    Passenger exitingPassenger = passengersInElevator.get(slot);
+    Point startPos = new Point(x, y);
+    Point endPos = new Point(cabinBounds.x + cabinBounds.width + 50, y);
+    
+    getView(exitingPassenger).startAnimation(startPos, endPos, AnimationType.EXITING);
+    elevatorTrack.getAnimationController().addAnimating(exitingPassenger);
+    passengersInElevator.remove(slot);
+    cabinVersion++;
+    
+    elevatorTrack.getAnimationController().startPassengerAnimation();
 }
 
     public void checkForAdditionalPassengersAfterExit() {
@@ -110,18 +121,15 @@ public class PassengerManager {
     }
     
     int currentFloor = elevatorTrack.getCabinFloor();
-    List<Passenger> currentFloorPassengers = passengersOnFloors.get(currentFloor);
-    int availableSpaces = MAX_CABIN_CAPACITY - passengersInElevator.size();
+    PassengerQueue currentFloorPassengers = passengersOnFloors[currentFloor];
+    int availableSpaces = maxCabinCapacity - passengersInElevator.size();
     
     if(!currentFloorPassengers.isEmpty() && availableSpaces > 0) {
-        Timer immediateBoard = new Timer(50, e -> {
+        elevatorTrack.getFrameClock().schedule(50, () -> {
             if(!elevatorTrack.getAnimationController().isAnimationRunning()) {
                 loadPassengersAutomatically(currentFloor);
             }
-            ((Timer)e.getSource()).stop();
         });
-        immediateBoard.setRepeats(false);
-        immediateBoard.start();
     }
 }
     
@@ -134,16 +142,28 @@ public class PassengerManager {
         }
     }
     
+    public void boardPassenger(Passenger passenger) {
+        passengersInElevator.add(passenger);
+        cabinVersion++;
+    }
+    
+    public Passenger removePassengerFromElevator(int index) {
+        cabinVersion++;
+        return passengersInElevator.remove(index);
+    }
+    
     public void clearAllPassengers() {
         passengersInElevator.clear();
-        for(int i = 0; i <= 10; i++) {
-            passengersOnFloors.get(i).clear();
+        views.clear();
+        cabinVersion++;
+        for(PassengerQueue floorPassengers : passengersOnFloors) {
+            floorPassengers.clear();
         }
     }
     
     public boolean hasPassengersOnFloor(int floor) {
         return elevatorTrack.getSimulationController().isSimulationStarted() && 
-               !passengersOnFloors.get(floor).isEmpty();
+               !passengersOnFloors[floor].isEmpty();
     }
     
     public boolean hasPassengersInElevator() {
@@ -151,14 +171,30 @@ public class PassengerManager {
     }
     
     public List<Passenger> getPassengersInElevator() {
-        return passengersInElevator;
+        return passengersInElevatorView;
     }
     
-    public HashMap<Integer, List<Passenger>> getPassengersOnFloors() {
-        return passengersOnFloors;
+    public PassengerQueue.View getPassengersOnFloor(int floor) {
+        return passengersOnFloors[floor].view();
     }
     
     public int getCountPassengersOnFloor(int floor) {
-        return passengersOnFloors.get(floor).size();
+        return passengersOnFloors[floor].size();
+    }
+    
+    public PassengerView getView(Passenger passenger) {
+        return views.get(passenger.getId());
+    }
+    
+    public void releaseView(Passenger passenger) {
+        views.remove(passenger.getId());
+    }
+    
+    public int getCabinVersion() {
+        return cabinVersion;
+    }
+    
+    public PassengerMetrics getMetrics() {
+        return metrics;
     }
 }
\ No newline at end of file
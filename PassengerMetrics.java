@@ -0,0 +1,111 @@
+import java.io.PrintStream;
+
+public class PassengerMetrics {
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LatencyHistogram rideTime = new LatencyHistogram();
+    private final LatencyHistogram journeyTime = new LatencyHistogram();
+    private final LatencyHistogram[] waitTimeByFloor;
+    private final LatencyHistogram[] rideTimeByFloor;
+    private final LatencyHistogram[] journeyTimeByFloor;
+
+    private final boolean perFloor;
+    private long unstampedDeliveries = 0;
+
+    public PassengerMetrics(int floors, boolean perFloor) {
+        this.perFloor = perFloor;
+        waitTimeByFloor = new LatencyHistogram[floors];
+        rideTimeByFloor = new LatencyHistogram[floors];
+        journeyTimeByFloor = new LatencyHistogram[floors];
+    }
+
+    public void recordDelivery(Passenger passenger) {
+        if(passenger.getCallTime() < 0 || passenger.getBoardTime() < 0 || passenger.getAlightTime() < 0) {
+            unstampedDeliveries++;
+            return;
+        }
+
+        long wait = passenger.getBoardTime() - passenger.getCallTime();
+        long ride = passenger.getAlightTime() - passenger.getBoardTime();
+        long journey = passenger.getAlightTime() - passenger.getCallTime();
+        int floor = passenger.getOriginFloor();
+
+        waitTime.record(wait);
+        rideTime.record(ride);
+        journeyTime.record(journey);
+        if(!perFloor) {
+            return;
+        }
+        histogramFor(waitTimeByFloor, floor).record(wait);
+        histogramFor(rideTimeByFloor, floor).record(ride);
+        histogramFor(journeyTimeByFloor, floor).record(journey);
+    }
+
+    public void add(PassengerMetrics other) {
+        waitTime.add(other.waitTime);
+        rideTime.add(other.rideTime);
+        journeyTime.add(other.journeyTime);
+        unstampedDeliveries += other.unstampedDeliveries;
+        for(int floor = 0; floor < Math.min(waitTimeByFloor.length, other.waitTimeByFloor.length); floor++) {
+            if(perFloor && other.waitTimeByFloor[floor] != null) {
+                histogramFor(waitTimeByFloor, floor).add(other.waitTimeByFloor[floor]);
+                histogramFor(rideTimeByFloor, floor).add(other.rideTimeByFloor[floor]);
+                histogramFor(journeyTimeByFloor, floor).add(other.journeyTimeByFloor[floor]);
+            }
+        }
+    }
+
+    public void reset() {
+        waitTime.reset();
+        rideTime.reset();
+        journeyTime.reset();
+        unstampedDeliveries = 0;
+        for(int floor = 0; floor < waitTimeByFloor.length; floor++) {
+            waitTimeByFloor[floor] = null;
+            rideTimeByFloor[floor] = null;
+            journeyTimeByFloor[floor] = null;
+        }
+    }
+
+    public void printReport(PrintStream out) {
+        out.printf("%-10s %8s %10s %10s %10s %10s%n", "metric", "count", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        printLine(out, "wait", waitTime);
+        printLine(out, "ride", rideTime);
+        printLine(out, "journey", journeyTime);
+        out.printf("%-10s %8d%n", "unstamped", unstampedDeliveries);
+
+        if(!perFloor) {
+            return;
+        }
+
+        for(int floor = 0; floor < waitTimeByFloor.length; floor++) {
+            if(waitTimeByFloor[floor] == null) {
+                continue;
+            }
+            printLine(out, "wait@" + floor, waitTimeByFloor[floor]);
+            printLine(out, "ride@" + floor, rideTimeByFloor[floor]);
+            printLine(out, "journey@" + floor, journeyTimeByFloor[floor]);
+        }
+    }
+
+    private static void printLine(PrintStream out, String name, LatencyHistogram histogram) {
+        out.printf("%-10s %8d %10d %10d %10d %10d%n", name, histogram.getTotalCount(),
+            histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(95),
+            histogram.getValueAtPercentile(99), histogram.getMax());
+    }
+
+    private static LatencyHistogram histogramFor(LatencyHistogram[] histograms, int floor) {
+        if(histograms[floor] == null) {
+            histograms[floor] = new LatencyHistogram();
+        }
+        return histograms[floor];
+    }
+
+    public boolean isPerFloor() { return perFloor; }
+    public LatencyHistogram getWaitTime() { return waitTime; }
+    public LatencyHistogram getRideTime() { return rideTime; }
+    public LatencyHistogram getJourneyTime() { return journeyTime; }
+    public long getUnstampedDeliveries() { return unstampedDeliveries; }
+    public LatencyHistogram getWaitTime(int floor) { return histogramFor(waitTimeByFloor, floor); }
+    public LatencyHistogram getRideTime(int floor) { return histogramFor(rideTimeByFloor, floor); }
+    public LatencyHistogram getJourneyTime(int floor) { return histogramFor(journeyTimeByFloor, floor); }
+}
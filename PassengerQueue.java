@@ -0,0 +1,95 @@
+import java.util.Collection;
+
+public class PassengerQueue {
+    private Passenger[] elements;
+    private int head = 0;
+    private int size = 0;
+    private int version = 0;
+    private final View view = new View();
+
+    public PassengerQueue() {
+        this(8);
+    }
+
+    public PassengerQueue(int initialCapacity) {
+        elements = new Passenger[Math.max(2, Integer.highestOneBit(Math.max(1, initialCapacity - 1)) << 1)];
+    }
+
+    public void add(Passenger passenger) {
+        if(size == elements.length) {
+            grow();
+        }
+        elements[(head + size) & (elements.length - 1)] = passenger;
+        size++;
+        version++;
+    }
+
+    public Passenger poll() {
+        if(size == 0) {
+            return null;
+        }
+        Passenger passenger = elements[head];
+        elements[head] = null;
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        version++;
+        return passenger;
+    }
+
+    public Passenger get(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return elements[(head + index) & (elements.length - 1)];
+    }
+
+    public int drainTo(Collection<Passenger> target, int maxElements) {
+        int count = Math.min(maxElements, size);
+        for(int i = 0; i < count; i++) {
+            target.add(poll());
+        }
+        return count;
+    }
+
+    public void clear() {
+        while(size > 0) {
+            poll();
+        }
+        head = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public View view() {
+        return view;
+    }
+
+    private void grow() {
+        Passenger[] grown = new Passenger[elements.length << 1];
+        for(int i = 0; i < size; i++) {
+            grown[i] = elements[(head + i) & (elements.length - 1)];
+        }
+        elements = grown;
+        head = 0;
+    }
+
+    public final class View {
+        private View() {
+        }
+
+        public Passenger get(int index) { return PassengerQueue.this.get(index); }
+        public int size() { return size; }
+        public boolean isEmpty() { return size == 0; }
+        public int getVersion() { return version; }
+    }
+}
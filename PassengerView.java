@@ -0,0 +1,60 @@
+import java.awt.Color;
+import java.awt.Point;
+
+public class PassengerView {
+    private static final int[] CHANNEL_LEVELS = {150, 183, 216, 249};
+    public static final Color[] PALETTE = buildPalette();
+    
+    private final int colorIndex;
+    
+    private boolean isAnimating = false;
+    private Point animationStartPos;
+    private Point animationEndPos;
+    private Point currentPos;
+    private AnimationType animationType;
+    
+    public PassengerView() {
+        this.colorIndex = (int)(Math.random() * PALETTE.length);
+        this.currentPos = new Point(0, 0);
+    }
+    
+    private static Color[] buildPalette() {
+        Color[] palette = new Color[CHANNEL_LEVELS.length * CHANNEL_LEVELS.length * CHANNEL_LEVELS.length];
+        int index = 0;
+        for(int r : CHANNEL_LEVELS) {
+            for(int g : CHANNEL_LEVELS) {
+                for(int b : CHANNEL_LEVELS) {
+                    palette[index++] = new Color(r, g, b);
+                }
+            }
+        }
+        return palette;
+    }
+    
+    public void startAnimation(Point startPos, Point endPos, AnimationType type) {
+        this.animationStartPos = new Point(startPos);
+        this.animationEndPos = new Point(endPos);
+        this.currentPos = new Point(startPos);
+        this.animationType = type;
+        this.isAnimating = true;
+    }
+    
+    public void updateAnimationPosition(float progress) {
+        if(isAnimating) {
+            int x = (int)(animationStartPos.x + (animationEndPos.x - animationStartPos.x) * progress);
+            int y = (int)(animationStartPos.y + (animationEndPos.y - animationStartPos.y) * progress);
+            currentPos.setLocation(x, y);
+        }
+    }
+    
+    public void finishAnimation() {
+        isAnimating = false;
+    }
+    
+    public Color getPassengerColor() { return PALETTE[colorIndex]; }
+    public int getColorIndex() { return colorIndex; }
+    
+    public boolean isAnimating() { return isAnimating; }
+    public Point getCurrentPos() { return currentPos; }
+    public AnimationType getAnimationType() { return animationType; }
+}
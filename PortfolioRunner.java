@@ -0,0 +1,187 @@
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class PortfolioRunner {
+    public static final String PARALLELISM_PROPERTY = "portfolio.parallelism";
+    public static final String POLICY_PROPERTY = "portfolio.policy";
+
+    private final List<BuildingSpec> buildings;
+    private final DispatchPolicy policy;
+    private final double arrivalsPerCarHour;
+    private final long durationMs;
+
+    public PortfolioRunner(List<BuildingSpec> buildings, DispatchPolicy policy, double arrivalsPerCarHour, long durationMs) {
+        this.buildings = buildings;
+        this.policy = policy;
+        this.arrivalsPerCarHour = arrivalsPerCarHour;
+        this.durationMs = durationMs;
+    }
+
+    public List<Shard> run(int shardCount) throws InterruptedException {
+        List<Shard> shards = assignShards(shardCount);
+        Thread[] workers = new Thread[shards.size()];
+        for(int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(shards.get(i)::run, "portfolio-shard-" + i);
+            workers[i].start();
+        }
+        for(Thread worker : workers) {
+            worker.join();
+        }
+        return shards;
+    }
+
+    private List<Shard> assignShards(int shardCount) {
+        List<Shard> shards = new ArrayList<>(shardCount);
+        for(int i = 0; i < shardCount; i++) {
+            shards.add(new Shard());
+        }
+
+        List<Integer> order = new ArrayList<>(buildings.size());
+        for(int i = 0; i < buildings.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingLong((Integer index) -> estimatedWork(buildings.get(index))).reversed());
+
+        for(int index : order) {
+            Shard lightest = shards.get(0);
+            for(Shard shard : shards) {
+                if(shard.estimatedWork < lightest.estimatedWork) {
+                    lightest = shard;
+                }
+            }
+            lightest.buildingIndexes.add(index);
+            lightest.estimatedWork += estimatedWork(buildings.get(index));
+        }
+        return shards;
+    }
+
+    private long estimatedWork(BuildingSpec spec) {
+        return (long) spec.getCars() * spec.getFloors();
+    }
+
+    public final class Shard implements Runnable {
+        private final List<Integer> buildingIndexes = new ArrayList<>();
+        private final PassengerMetrics metrics = new PassengerMetrics(0, false);
+        private long estimatedWork;
+        private long generated;
+        private long delivered;
+        private long trips;
+        private long events;
+        private long simulatedTime;
+        private long wallNanos;
+
+        @Override
+        public void run() {
+            long startNanos = System.nanoTime();
+            for(int index : buildingIndexes) {
+                BuildingSpec spec = buildings.get(index);
+                HeadlessSimulation simulation = policy.createSimulation(index, spec);
+                if(arrivalsPerCarHour > 0) {
+                    simulation.setTrafficGenerator(new TrafficGenerator(index, spec.getFloors(),
+                        arrivalsPerCarHour * spec.getCars(), 0, durationMs));
+                }
+                simulation.startSimulation();
+                simulation.run();
+
+                generated += simulation.getGeneratedPassengers();
+                delivered += simulation.getDeliveredPassengers();
+                trips += simulation.getTrips();
+                events += simulation.getProcessedEvents();
+                simulatedTime += simulation.getSimulatedTime();
+                metrics.add(simulation.getMetrics());
+            }
+            wallNanos = System.nanoTime() - startNanos;
+        }
+
+        public int getBuildings() { return buildingIndexes.size(); }
+        public PassengerMetrics getMetrics() { return metrics; }
+        public long getGenerated() { return generated; }
+        public long getDelivered() { return delivered; }
+        public long getTrips() { return trips; }
+        public long getEvents() { return events; }
+        public long getSimulatedTime() { return simulatedTime; }
+        public long getWallNanos() { return wallNanos; }
+    }
+
+    public static List<BuildingSpec> loadPortfolio(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.properties")) {
+            for(Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(null);
+
+        List<BuildingSpec> buildings = new ArrayList<>(files.size());
+        for(Path file : files) {
+            buildings.add(BuildingSpec.load(file));
+        }
+        return buildings;
+    }
+
+    public static List<BuildingSpec> syntheticPortfolio(int count, long seed) {
+        BuildingSpec base = BuildingSpec.defaults();
+        SplittableRandom random = new SplittableRandom(seed);
+        List<BuildingSpec> buildings = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            int floors = random.nextInt(6, 61);
+            int cars = Math.max(1, floors / 8 + random.nextInt(-1, 2));
+            int capacity = random.nextInt(8, 21);
+            buildings.add(new BuildingSpec(floors, cars, capacity, base.getFloorTravelMs(), base.getDoorDwellMs(),
+                base.getPassengerTransferMs()));
+        }
+        return buildings;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String source = args.length > 0 ? args[0] : "300";
+        double arrivalsPerCarHour = args.length > 1 ? Double.parseDouble(args[1]) : 120;
+        double hours = args.length > 2 ? Double.parseDouble(args[2]) : 24;
+        int parallelism = Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors());
+        DispatchPolicy policy = DispatchPolicy.valueOf(System.getProperty(POLICY_PROPERTY, "ETA").trim());
+
+        Path directory = Paths.get(source);
+        List<BuildingSpec> buildings = Files.isDirectory(directory)
+            ? loadPortfolio(directory)
+            : syntheticPortfolio(Integer.parseInt(source), 0);
+        PortfolioRunner runner = new PortfolioRunner(buildings, policy, arrivalsPerCarHour, (long) (hours * 3_600_000));
+
+        long startNanos = System.nanoTime();
+        List<Shard> shards = runner.run(parallelism);
+        double wallSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+        PassengerMetrics metrics = new PassengerMetrics(0, false);
+        long generated = 0;
+        long delivered = 0;
+        long trips = 0;
+        long events = 0;
+        long simulatedTime = 0;
+        System.out.printf("%-6s %10s %12s %12s %10s%n", "shard", "buildings", "passengers", "events", "wall s");
+        for(int i = 0; i < shards.size(); i++) {
+            Shard shard = shards.get(i);
+            System.out.printf("%-6d %10d %12d %12d %10.3f%n",
+                i, shard.getBuildings(), shard.getDelivered(), shard.getEvents(), shard.getWallNanos() / 1e9);
+            metrics.add(shard.getMetrics());
+            generated += shard.getGenerated();
+            delivered += shard.getDelivered();
+            trips += shard.getTrips();
+            events += shard.getEvents();
+            simulatedTime += shard.getSimulatedTime();
+        }
+
+        double simulatedHours = simulatedTime / 3_600_000.0;
+        System.out.printf("buildings=%d policy=%s shards=%d passengers=%d/%d trips=%d%n",
+            buildings.size(), policy, shards.size(), delivered, generated, trips);
+        System.out.printf("simulated=%.1f h wall=%.3f s rate=%.1f buildings/s, %.1f simulated h/s, %.0f ns/event%n",
+            simulatedHours, wallSeconds, buildings.size() / wallSeconds, simulatedHours / wallSeconds,
+            wallSeconds * 1e9 / Math.max(1, events));
+        metrics.printReport(System.out);
+    }
+}
@@ -2,63 +2,220 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
-import java.awt.Point;
+import java.awt.GraphicsConfiguration;
 import java.awt.Rectangle;
-import java.util.List;
+import java.awt.image.BufferedImage;
 
 public class RenderingEngine {
+    private static final int ANIMATED_PASSENGER_SIZE = 6;
+    private static final Font FLOOR_LABEL_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final Font CALL_BUTTON_FONT = new Font("Arial", Font.PLAIN, 8);
+    private static final Font CABIN_COUNT_FONT = new Font("Arial", Font.BOLD, 10);
+    private static final Font CROWD_FONT = new Font("Arial", Font.BOLD, 9);
+    
     private final ElevatorTrack elevatorTrack;
+    private final Rectangle lastCabinBounds = new Rectangle();
+    private final String[] floorLabels;
+    private final String[] callButtonLabels;
+    private final int[] floorLabelX;
+    private final int[] floorLabelY;
+    private String[] cabinCountLabels = new String[0];
+    private String[] crowdLabels = new String[0];
+    private final SpriteAtlas spriteAtlas = new SpriteAtlas(PassengerView.PALETTE);
+    private BufferedImage background;
     
     public RenderingEngine(ElevatorTrack elevatorTrack) {
         this.elevatorTrack = elevatorTrack;
+        
+        int floors = elevatorTrack.getBuildingSpec().getFloors();
+        floorLabels = new String[floors];
+        callButtonLabels = new String[floors];
+        floorLabelX = new int[floors];
+        floorLabelY = new int[floors];
+        for(int i = 0; i < floors; i++) {
+            floorLabels[i] = "Piętro " + i;
+            callButtonLabels[i] = String.valueOf(i);
+        }
     }
     
     public void render(Graphics g) {
-        for(int i = 10; i >= 0; i--) {
-            Rectangle bounds = elevatorTrack.getFloorBounds().get(i);
-            if(bounds != null) {
-                drawFloor(g, i, bounds);
+        Rectangle clip = g.getClipBounds();
+        
+        if(background == null || background.getWidth() != elevatorTrack.getWidth() ||
+           background.getHeight() != elevatorTrack.getHeight()) {
+            rebuildBackground();
+        }
+        if(background != null) {
+            g.drawImage(background, 0, 0, null);
+        }
+        
+        SimulationSnapshot state = elevatorTrack.getSnapshot();
+        int highlightedFloor = state.getHighlightedFloor();
+        Rectangle highlightedBounds = elevatorTrack.getFloorBounds().get(highlightedFloor);
+        if(highlightedBounds != null && isRowDamaged(clip, highlightedBounds)) {
+            drawFloor(g, highlightedFloor, highlightedBounds, Color.YELLOW);
+        }
+        
+        if(state.isStarted()) {
+            drawFloorCallButtons(g, clip, state);
+            drawPassengersOnFloors(g, clip, state);
+        }
+        
+        Rectangle cabinBounds = elevatorTrack.getCabinBounds();
+        if(cabinBounds != null) {
+            if(clip == null || clip.intersects(cabinBounds.x, cabinBounds.y, cabinBounds.width + 1, cabinBounds.height + 1) ||
+               state.getMovingCount() > 0) {
+                drawCabin(g, state);
+            }
+        }
+    }
+    
+    public void repaintChanges(SimulationSnapshot previous, SimulationSnapshot next) {
+        if(elevatorTrack.getFrameClock().isSkipping()) {
+            return;
+        }
+        if(previous.isStarted() != next.isStarted() || previous.getFloors() != next.getFloors()) {
+            elevatorTrack.repaint();
+            return;
+        }
+        
+        for(int i = 0; i < next.getChangedFloorCount(); i++) {
+            repaintFloor(next.getChangedFloor(i));
+        }
+        if(previous.getHighlightedFloor() != next.getHighlightedFloor()) {
+            repaintFloor(previous.getHighlightedFloor());
+            repaintFloor(next.getHighlightedFloor());
+        }
+        if(!next.hasSameMovingPassengers(previous)) {
+            for(int i = 0; i < previous.getMovingCount(); i++) {
+                repaintPassenger(previous.getMovingX(i), previous.getMovingY(i));
+            }
+            for(int i = 0; i < next.getMovingCount(); i++) {
+                repaintPassenger(next.getMovingX(i), next.getMovingY(i));
             }
         }
+        if(!next.hasSameRiders(previous) || previous.getMovingCount() != next.getMovingCount()) {
+            repaintCabin();
+        }
+    }
+    
+    public void repaintFloor(int floor) {
+        if(elevatorTrack.getFrameClock().isSkipping()) {
+            return;
+        }
+        Rectangle bounds = elevatorTrack.getFloorBounds().get(floor);
+        if(bounds != null) {
+            elevatorTrack.repaint(0, bounds.y, elevatorTrack.getWidth(), bounds.height + 1);
+        }
+    }
+    
+    public void repaintCabin() {
+        Rectangle cabinBounds = elevatorTrack.getCabinBounds();
+        if(cabinBounds == null || elevatorTrack.getFrameClock().isSkipping()) {
+            return;
+        }
         
-        if(elevatorTrack.getSimulationController().isSimulationStarted()) {
-            drawFloorCallButtons(g);
-            drawPassengersOnFloors(g);
+        if(!lastCabinBounds.isEmpty() && !lastCabinBounds.equals(cabinBounds)) {
+            elevatorTrack.repaint(lastCabinBounds.x, lastCabinBounds.y, lastCabinBounds.width + 1, lastCabinBounds.height + 1);
+        }
+        lastCabinBounds.setBounds(cabinBounds);
+        elevatorTrack.repaint(cabinBounds.x, cabinBounds.y, cabinBounds.width + 1, cabinBounds.height + 1);
+    }
+    
+    private void repaintPassenger(int x, int y) {
+        elevatorTrack.repaint(x, y, ANIMATED_PASSENGER_SIZE + 1, ANIMATED_PASSENGER_SIZE + 1);
+    }
+    
+    public void invalidateBackground() {
+        background = null;
+    }
+    
+    private void rebuildBackground() {
+        int width = elevatorTrack.getWidth();
+        int height = elevatorTrack.getHeight();
+        if(width <= 0 || height <= 0 || elevatorTrack.getFloorBounds().isEmpty()) {
+            return;
         }
         
-        if(elevatorTrack.getCabinBounds() != null) {
-            drawCabin(g);
+        GraphicsConfiguration configuration = elevatorTrack.getGraphicsConfiguration();
+        BufferedImage image = configuration != null
+            ? configuration.createCompatibleImage(width, height)
+            : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        
+        Graphics g = image.getGraphics();
+        try {
+            g.setColor(elevatorTrack.getBackground());
+            g.fillRect(0, 0, width, height);
+            
+            g.setFont(FLOOR_LABEL_FONT);
+            FontMetrics fm = g.getFontMetrics();
+            for(int i = 0; i < floorLabels.length; i++) {
+                Rectangle bounds = elevatorTrack.getFloorBounds().get(i);
+                if(bounds == null) continue;
+                
+                floorLabelX[i] = bounds.x + (bounds.width - fm.stringWidth(floorLabels[i])) / 2;
+                floorLabelY[i] = bounds.y + (bounds.height + fm.getAscent()) / 2 - 2;
+                drawFloor(g, i, bounds, Color.LIGHT_GRAY);
+            }
+        } finally {
+            g.dispose();
+        }
+        background = image;
+    }
+    
+    private String cabinCountLabel(int count) {
+        if(count >= cabinCountLabels.length) {
+            String[] grown = new String[Math.max(count + 1, cabinCountLabels.length * 2)];
+            System.arraycopy(cabinCountLabels, 0, grown, 0, cabinCountLabels.length);
+            cabinCountLabels = grown;
+        }
+        if(cabinCountLabels[count] == null) {
+            cabinCountLabels[count] = count + " os.";
         }
+        return cabinCountLabels[count];
     }
     
-    private void drawFloor(Graphics g, int floorNumber, Rectangle bounds) {
-        if(floorNumber == elevatorTrack.getHighlightedFloor()) {
-            g.setColor(Color.YELLOW);
-        } else {
-            g.setColor(Color.LIGHT_GRAY);
+    private String crowdLabel(int count) {
+        if(count >= 10000) {
+            return "+" + (count / 1000) + "k";
+        }
+        if(count >= crowdLabels.length) {
+            String[] grown = new String[Math.max(count + 1, crowdLabels.length * 2)];
+            System.arraycopy(crowdLabels, 0, grown, 0, crowdLabels.length);
+            crowdLabels = grown;
+        }
+        if(crowdLabels[count] == null) {
+            crowdLabels[count] = "+" + count;
         }
+        return crowdLabels[count];
+    }
+    
+    private boolean isRowDamaged(Rectangle clip, Rectangle floorBounds) {
+        return clip == null || 
+               (floorBounds.y <= clip.y + clip.height && floorBounds.y + floorBounds.height >= clip.y);
+    }
+    
+    private void drawFloor(Graphics g, int floorNumber, Rectangle bounds, Color fill) {
+        g.setColor(fill);
         g.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
         
         g.setColor(Color.DARK_GRAY);
         g.drawRect(bounds.x, bounds.y, bounds.width, bounds.height);
         
         g.setColor(Color.BLACK);
-        g.setFont(new Font("Arial", Font.BOLD, 14));
-        String text = "Piętro " + floorNumber;
-        FontMetrics fm = g.getFontMetrics();
-        int textX = bounds.x + (bounds.width - fm.stringWidth(text)) / 2;
-        int textY = bounds.y + (bounds.height + fm.getAscent()) / 2 - 2;
-        g.drawString(text, textX, textY);
+        g.setFont(FLOOR_LABEL_FONT);
+        g.drawString(floorLabels[floorNumber], floorLabelX[floorNumber], floorLabelY[floorNumber]);
     }
     
-    private void drawFloorCallButtons(Graphics g) {
-        for(int floor = 0; floor <= 10; floor++) {
+    private void drawFloorCallButtons(Graphics g, Rectangle clip, SimulationSnapshot state) {
+        for(int floor = 0; floor < elevatorTrack.getBuildingSpec().getFloors(); floor++) {
             Rectangle callBounds = elevatorTrack.getCallButtonBounds().get(floor);
-            if(callBounds == null) continue;
+            if(callBounds == null || !isRowDamaged(clip, callBounds)) continue;
             
-            boolean isEnabled = elevatorTrack.getQueueManager().getFloorCallButtons().get(floor);
-            boolean hasPassengers = elevatorTrack.getPassengerManager().hasPassengersOnFloor(floor);
-            boolean inQueue = elevatorTrack.getQueueManager().getElevatorTargetsList().contains(floor);
+            SimulationSnapshot.FloorState row = state.getFloor(floor);
+            boolean isEnabled = row.isCallButtonEnabled();
+            boolean hasPassengers = row.getWaiting() > 0;
+            boolean inQueue = row.isQueued();
             
             if(!hasPassengers) {
                 g.setColor(Color.DARK_GRAY);
@@ -76,38 +233,50 @@ public class RenderingEngine {
             
           
             g.setColor(Color.BLACK);
-            g.setFont(new Font("Arial", Font.PLAIN, 8));
-            g.drawString(String.valueOf(floor), callBounds.x + 2, callBounds.y + 10);
+            g.setFont(CALL_BUTTON_FONT);
+            g.drawString(callButtonLabels[floor], callBounds.x + 2, callBounds.y + 10);
         }
     }
     
-    private void drawPassengersOnFloors(Graphics g) {
-        for(int floor = 0; floor <= 10; floor++) {
-            List<Passenger> passengers = elevatorTrack.getPassengerManager().getPassengersOnFloors().get(floor);
+    private void drawPassengersOnFloors(Graphics g, Rectangle clip, SimulationSnapshot state) {
+        for(int floor = 0; floor < state.getFloors(); floor++) {
+            SimulationSnapshot.FloorState passengers = state.getFloor(floor);
             Rectangle bounds = elevatorTrack.getFloorBounds().get(floor);
             
-            if(bounds != null && !passengers.isEmpty()) {
-                int passengerSize = 8;
+            if(bounds != null && passengers.getWaiting() > 0 && isRowDamaged(clip, bounds)) {
+                int passengerSize = SpriteAtlas.getSpriteSize(SpriteAtlas.FLOOR_SPRITE);
                 int startX = bounds.x + bounds.width + 60;
                 int y = bounds.y + (bounds.height - passengerSize) / 2;
                 
-                int visiblePassengers = Math.min(passengers.size(), 8);
+                int slots = Math.max(0, (elevatorTrack.getWidth() - startX) / (passengerSize + 2));
+                int visiblePassengers = passengers.getWaiting();
+                if(visiblePassengers > slots) {
+                    visiblePassengers = Math.max(0, (elevatorTrack.getWidth() - startX - TrackHitIndex.CROWD_GLYPH_WIDTH) / (passengerSize + 2));
+                }
+                visiblePassengers = Math.min(visiblePassengers, passengers.getColorCount());
+                
                 for(int i = 0; i < visiblePassengers; i++) {
-                    Passenger passenger = passengers.get(i);
                     int x = startX + (i * (passengerSize + 2));
-                    
-                    g.setColor(passenger.getPassengerColor());
-                    g.fillOval(x, y, passengerSize, passengerSize);
-                    g.setColor(Color.BLACK);
-                    g.drawOval(x, y, passengerSize, passengerSize);
+                    spriteAtlas.draw(g, SpriteAtlas.FLOOR_SPRITE, passengers.getColorIndex(i), x, y);
                 }
                 
-              
+                if(visiblePassengers < passengers.getWaiting()) {
+                    drawCrowdGlyph(g, startX + visiblePassengers * (passengerSize + 2), y - 2, 
+                        passengers.getWaiting() - visiblePassengers);
+                }
             }
         }
     }
     
-    private void drawCabin(Graphics g) {
+    private void drawCrowdGlyph(Graphics g, int x, int y, int hiddenPassengers) {
+        g.setColor(Color.DARK_GRAY);
+        g.fillRoundRect(x, y, TrackHitIndex.CROWD_GLYPH_WIDTH - 2, 12, 6, 6);
+        g.setColor(Color.WHITE);
+        g.setFont(CROWD_FONT);
+        g.drawString(crowdLabel(hiddenPassengers), x + 3, y + 10);
+    }
+    
+    private void drawCabin(Graphics g, SimulationSnapshot state) {
         Rectangle cabinBounds = elevatorTrack.getCabinBounds();
         
         g.setColor(Color.GRAY);
@@ -117,46 +286,32 @@ public class RenderingEngine {
         g.drawRect(cabinBounds.x, cabinBounds.y, cabinBounds.width, cabinBounds.height);
         g.drawRect(cabinBounds.x + 1, cabinBounds.y + 1, cabinBounds.width - 2, cabinBounds.height - 2);
         
-        if(!elevatorTrack.getPassengerManager().getPassengersInElevator().isEmpty() || 
-           !elevatorTrack.getAnimationController().getAnimatingPassenger().isEmpty()) {
-            drawPassengerInCabin(g);
+        if(state.getRidersInCabin() > 0 || state.getMovingCount() > 0) {
+            drawPassengerInCabin(g, state);
         }
     }
     
-    private void drawPassengerInCabin(Graphics g) {
+    private void drawPassengerInCabin(Graphics g, SimulationSnapshot state) {
         Rectangle cabinBounds = elevatorTrack.getCabinBounds();
-        int passengerSize = 6;
         
-        int startX = cabinBounds.x + 5;
-        int startY = cabinBounds.y + 5;
-        int cols = (cabinBounds.width - 10) / (passengerSize + 2);
+        int visibleRiders = TrackHitIndex.getVisibleCabinRiders(cabinBounds, state.getRidersInCabin());
+        for(int i = 0; i < visibleRiders; i++) {
+            spriteAtlas.draw(g, SpriteAtlas.CABIN_SPRITE, state.getRiderColor(i),
+                TrackHitIndex.getCabinSlotX(cabinBounds, i), TrackHitIndex.getCabinSlotY(cabinBounds, i));
+        }
+        
+        if(visibleRiders < state.getRidersInCabin()) {
+            drawCrowdGlyph(g, TrackHitIndex.getCabinSlotX(cabinBounds, visibleRiders),
+                TrackHitIndex.getCabinSlotY(cabinBounds, visibleRiders) - 3, state.getRidersInCabin() - visibleRiders);
+        }
         
-        java.util.List<Passenger> passengersInElevator = elevatorTrack.getPassengerManager().getPassengersInElevator();
-        for(int i = 0; i < Math.min(passengersInElevator.size(), 20); i++) {
-            Passenger passenger = passengersInElevator.get(i);
-            int x = startX + (i % cols) * (passengerSize + 2);
-            int y = startY + (i / cols) * (passengerSize + 2);
-            
-            g.setColor(passenger.getPassengerColor());
-            g.fillOval(x, y, passengerSize, passengerSize);
-            g.setColor(Color.WHITE);
-            g.drawOval(x, y, passengerSize, passengerSize);
-        }
-        
-        for(Passenger passenger : elevatorTrack.getAnimationController().getAnimatingPassenger()) {
-            if(passenger.isAnimating()) {
-                Point pos = passenger.getCurrentPos();
-                g.setColor(passenger.getPassengerColor());
-                g.fillOval(pos.x, pos.y, passengerSize, passengerSize);
-                g.setColor(Color.BLACK);
-                g.drawOval(pos.x, pos.y, passengerSize, passengerSize);
-            }
+        for(int i = 0; i < state.getMovingCount(); i++) {
+            spriteAtlas.draw(g, SpriteAtlas.MOVING_SPRITE, state.getMovingColor(i), state.getMovingX(i), state.getMovingY(i));
         }
         
         g.setColor(Color.WHITE);
-        g.setFont(new Font("Arial", Font.BOLD, 10));
-        String passengerCount = (passengersInElevator.size() + 
-            elevatorTrack.getAnimationController().getAnimatingPassenger().size()) + " os.";
+        g.setFont(CABIN_COUNT_FONT);
+        String passengerCount = cabinCountLabel(state.getRidersInCabin() + state.getMovingCount());
         g.drawString(passengerCount, cabinBounds.x + 5, cabinBounds.y + cabinBounds.height - 5);
     }
 }
\ No newline at end of file
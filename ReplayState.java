@@ -0,0 +1,138 @@
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class ReplayState {
+    private final int[] carFloors;
+    private final int[] carDestinations;
+    private final boolean[] carMoving;
+    private final Directions[] carDirections;
+    private final long[] carDwellUntil;
+    private final List<Set<Integer>> carStops;
+    private final List<Set<Integer>> carRiders;
+    private final List<Set<Integer>> waitingOnFloors;
+    private final boolean[] floorCallButtons;
+    private final long doorDwellMs;
+    private long time = 0;
+    private long appliedEvents = 0;
+    private long deliveredPassengers = 0;
+
+    public ReplayState(BuildingSpec spec) {
+        int floors = spec.getFloors();
+        int cars = spec.getCars();
+        doorDwellMs = spec.getDoorDwellMs();
+        carFloors = new int[cars];
+        carDestinations = new int[cars];
+        carMoving = new boolean[cars];
+        carDirections = new Directions[cars];
+        carDwellUntil = new long[cars];
+        carStops = new ArrayList<>(cars);
+        carRiders = new ArrayList<>(cars);
+        waitingOnFloors = new ArrayList<>(floors);
+        floorCallButtons = new boolean[floors];
+        for(int car = 0; car < cars; car++) {
+            carStops.add(new TreeSet<>());
+            carRiders.add(new LinkedHashSet<>());
+        }
+        for(int floor = 0; floor < floors; floor++) {
+            waitingOnFloors.add(new LinkedHashSet<>());
+            floorCallButtons[floor] = true;
+        }
+    }
+
+    public void apply(long eventTime, SimulationEventType type, int car, int floor, int passenger, int aux) {
+        time = eventTime;
+        appliedEvents++;
+
+        switch(type) {
+            case SPAWN:
+                waitingOnFloors.get(floor).add(passenger);
+                break;
+            case CALL:
+                floorCallButtons[floor] = false;
+                break;
+            case REARM:
+                floorCallButtons[floor] = true;
+                if(car >= 0) {
+                    carStops.get(car).remove(floor);
+                }
+                break;
+            case DISPATCH:
+                carStops.get(car).add(floor);
+                break;
+            case DEPART:
+                carMoving[car] = true;
+                carDwellUntil[car] = eventTime;
+                carDestinations[car] = floor;
+                if(floor != aux) {
+                    carDirections[car] = floor > aux ? Directions.UP : Directions.DOWN;
+                }
+                break;
+            case ARRIVE:
+                carMoving[car] = false;
+                carFloors[car] = floor;
+                carDwellUntil[car] = eventTime + doorDwellMs;
+                carStops.get(car).remove(floor);
+                if(carStops.get(car).isEmpty()) {
+                    carDirections[car] = null;
+                }
+                floorCallButtons[floor] = true;
+                break;
+            case BOARD:
+                waitingOnFloors.get(floor).remove(passenger);
+                carRiders.get(car).add(passenger);
+                if(aux != floor) {
+                    carStops.get(car).add(aux);
+                }
+                break;
+            case ALIGHT:
+                carRiders.get(car).remove(passenger);
+                deliveredPassengers++;
+                break;
+        }
+    }
+
+    public int getCarFloor(int car) { return carFloors[car]; }
+    public int getCarDestination(int car) { return carDestinations[car]; }
+    public boolean isCarMoving(int car) { return carMoving[car]; }
+    public Directions getCarDirection(int car) { return carDirections[car]; }
+    public boolean isCarDwelling(int car) { return !carMoving[car] && time < carDwellUntil[car]; }
+    public long getCarDwellUntil(int car) { return carDwellUntil[car]; }
+    public Set<Integer> getCarStops(int car) { return carStops.get(car); }
+    public Set<Integer> getCarRiders(int car) { return carRiders.get(car); }
+    public Set<Integer> getWaitingOnFloor(int floor) { return waitingOnFloors.get(floor); }
+    public boolean isFloorCallArmed(int floor) { return floorCallButtons[floor]; }
+    public long getTime() { return time; }
+    public long getAppliedEvents() { return appliedEvents; }
+    public long getDeliveredPassengers() { return deliveredPassengers; }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("t=").append(time).append(" ms events=").append(appliedEvents)
+            .append(" delivered=").append(deliveredPassengers).append('\n');
+        for(int car = 0; car < carFloors.length; car++) {
+            builder.append("car ").append(car).append(": floor ").append(carFloors[car]);
+            if(carMoving[car]) {
+                builder.append(" -> ").append(carDestinations[car]);
+            }
+            if(carDirections[car] != null) {
+                builder.append(' ').append(carDirections[car]);
+            }
+            if(isCarDwelling(car)) {
+                builder.append(" dwelling until ").append(carDwellUntil[car]);
+            }
+            builder.append(" stops=").append(carStops.get(car))
+                .append(" riders=").append(carRiders.get(car)).append('\n');
+        }
+        for(int floor = waitingOnFloors.size() - 1; floor >= 0; floor--) {
+            if(!waitingOnFloors.get(floor).isEmpty() || !floorCallButtons[floor]) {
+                builder.append("floor ").append(floor).append(floorCallButtons[floor] ? "" : " [called]")
+                    .append(" waiting=").append(waitingOnFloors.get(floor)).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,63 @@
+public class RouteEstimate {
+    private final CostModel costModel;
+    private final long[] arrivalOffsets;
+    private long elapsed;
+    private int cachedVersion = -1;
+    private int cachedPosition = -1;
+
+    public RouteEstimate(CostModel costModel, int floorCount) {
+        this.costModel = costModel;
+        this.arrivalOffsets = new long[floorCount];
+    }
+
+    public void update(FloorRequestQueue queue, int position) {
+        if(queue.getVersion() == cachedVersion && position == cachedPosition) {
+            return;
+        }
+        cachedVersion = queue.getVersion();
+        cachedPosition = position;
+
+        Directions direction = queue.getCurrentDirection();
+        if(direction == null) {
+            int above = queue.nextAbove(position);
+            int below = queue.nextBelow(position);
+            direction = (below == -1 || (above != -1 && above - position <= position - below)) ? Directions.UP : Directions.DOWN;
+        }
+
+        arrivalOffsets[position] = 0;
+        elapsed = 0;
+        int turnaround = sweep(queue, position, position, direction);
+        sweep(queue, turnaround, position, direction == Directions.UP ? Directions.DOWN : Directions.UP);
+    }
+
+    private int sweep(FloorRequestQueue queue, int from, int origin, Directions direction) {
+        int step = direction == Directions.UP ? 1 : -1;
+        int current = from;
+        int assigned = origin;
+        int stop = next(queue, origin, direction);
+
+        while(stop != -1) {
+            for(int floor = assigned + step; floor != stop + step; floor += step) {
+                arrivalOffsets[floor] = elapsed + costModel.travelTime(current, floor);
+            }
+            elapsed += costModel.travelTime(current, stop) + costModel.stopTime();
+            current = stop;
+            assigned = stop;
+            stop = next(queue, stop, direction);
+        }
+
+        int end = direction == Directions.UP ? arrivalOffsets.length - 1 : 0;
+        for(int floor = assigned + step; floor != end + step; floor += step) {
+            arrivalOffsets[floor] = elapsed + costModel.travelTime(current, floor);
+        }
+        return current;
+    }
+
+    private int next(FloorRequestQueue queue, int floor, Directions direction) {
+        return direction == Directions.UP ? queue.nextAbove(floor) : queue.nextBelow(floor);
+    }
+
+    public long getArrivalOffset(int floor) {
+        return arrivalOffsets[floor];
+    }
+}
@@ -0,0 +1,28 @@
+@FunctionalInterface
+public interface SimulationCommand {
+    void apply(ElevatorTrack elevatorTrack);
+
+    static SimulationCommand pressCallButton(int floor) {
+        return elevatorTrack -> elevatorTrack.getQueueManager().handleFloorCallButtonClick(floor);
+    }
+
+    static SimulationCommand selectFloor(int floor) {
+        return elevatorTrack -> elevatorTrack.addFloorTarget(floor);
+    }
+
+    static SimulationCommand spawnPassenger(int floor) {
+        return elevatorTrack -> elevatorTrack.getPassengerManager().addPassenger(floor);
+    }
+
+    static SimulationCommand spawnPassengerAt(long virtualTime, int floor) {
+        return elevatorTrack -> elevatorTrack.getFrameClock().schedule(virtualTime - elevatorTrack.getFrameClock().now(),
+            () -> spawnPassenger(floor).apply(elevatorTrack));
+    }
+
+    static SimulationCommand finishTraffic() {
+        return elevatorTrack -> {
+            elevatorTrack.getSimulationController().setTrafficPending(false);
+            elevatorTrack.getSimulationController().checkSimulationEndConditions();
+        };
+    }
+}
@@ -1,18 +1,25 @@
-import javax.swing.Timer;
-
-public class SimulationController {
+public final class SimulationController {
     private final ElevatorTrack elevatorTrack;
     private boolean simulationStarted = false;
     private boolean simulationEnded = false;
     private boolean isMoving = false;
     private boolean isWaitingOnFloor = false;
     private boolean isPassengerEntry = false;
+    private boolean trafficPending = false;
+    private boolean dwellExpired = false;
     
-    private Timer waitingTimer;
-    private Timer endSimulationTimer;
+    private FrameTask waitingTimer;
+    private FrameTask endSimulationTimer;
     
     public SimulationController(ElevatorTrack elevatorTrack) {
         this.elevatorTrack = elevatorTrack;
+        
+        elevatorTrack.getEventBus().subscribe(ElevatorEvent.ANIMATION_FINISHED, () -> {
+            if(dwellExpired && simulationStarted && isWaitingOnFloor && !isMoving &&
+               !elevatorTrack.getAnimationController().isAnimationRunning()) {
+                closeDoors();
+            }
+        });
     }
     
     public void startSimulation() {
@@ -25,6 +32,7 @@ public class SimulationController {
         isWaitingOnFloor = true;
         isPassengerEntry = false;
         
+        elevatorTrack.getPassengerManager().getMetrics().reset();
         elevatorTrack.getPassengerManager().generateRandomPassenger();
         elevatorTrack.getQueueManager().resetFloorCallButtons();
         elevatorTrack.getQueueManager().clearQueue();
@@ -32,24 +40,19 @@ public class SimulationController {
         elevatorTrack.requestFocus();
         elevatorTrack.repaint();
         
-        Timer initialCheckTimer = new Timer(1000, e -> {
-            checkSimulationEndConditions();
-            ((Timer)e.getSource()).stop();
-        });
-        initialCheckTimer.setRepeats(false);
-        initialCheckTimer.start();
+        elevatorTrack.getFrameClock().schedule(1000, this::checkSimulationEndConditions);
     }
 
     public void arriveAtFloor(int floor) {
         if(elevatorTrack.getAnimationController().isAnimationRunning()) {
-            scheduleRetry(() -> arriveAtFloor(floor), 1000);
+            elevatorTrack.getAnimationController().runWhenIdle(() -> arriveAtFloor(floor));
             return;
         }
         
-        elevatorTrack.getQueueManager().getElevatorTargetsList().remove(Integer.valueOf(floor));
+        elevatorTrack.getQueueManager().clearStop(floor);
         
         if(elevatorTrack.getPassengerManager().hasPassengersOnFloor(floor) && 
-           elevatorTrack.getPassengerManager().getPassengersInElevator().size() < 5) {
+           elevatorTrack.getPassengerManager().getPassengersInElevator().size() < elevatorTrack.getBuildingSpec().getCapacity()) {
             
             elevatorTrack.getPassengerManager().loadPassengersAutomatically(floor);
             
@@ -59,50 +62,39 @@ public class SimulationController {
             }
         }
         
-        if(!elevatorTrack.getQueueManager().getElevatorTargetsList().contains(floor)) {
-            elevatorTrack.getQueueManager().getFloorCallButtons().put(floor, true);
+        if(!elevatorTrack.getQueueManager().getElevatorTargets().contains(floor)) {
+            elevatorTrack.getQueueManager().enableFloorCallButton(floor);
         }
-        elevatorTrack.getElevatorButtons().enableFloorSelection();;
         startWaitingTimer();
-        elevatorTrack.repaint();
     }
     
     private void startWaitingTimer() {
-        if(waitingTimer != null && waitingTimer.isRunning()) {
-            waitingTimer.stop();
+        if(waitingTimer != null) {
+            waitingTimer.cancel();
         }
         
         isWaitingOnFloor = true;
         isMoving = false;
-        waitingTimer = new Timer(5000, e -> {
-            if (!elevatorTrack.getAnimationController().isAnimationRunning()) {
-                checkSimulationEndConditions();
-                elevatorTrack.getQueueManager().processFloorRequestQueue();
+        dwellExpired = false;
+        waitingTimer = elevatorTrack.getFrameClock().schedule(elevatorTrack.getBuildingSpec().getDoorDwellMs(), () -> {
+            if (elevatorTrack.getAnimationController().isAnimationRunning()) {
+                dwellExpired = true;
+            } else {
+                closeDoors();
             }
-            ((Timer)e.getSource()).stop();
         });
-        
-        waitingTimer.setRepeats(false);
-        waitingTimer.start();
     }
     
-    private void scheduleRetry(Runnable action, int delay) {
-        Timer retryTimer = new Timer(delay, e -> {
-            if(!elevatorTrack.getAnimationController().isAnimationRunning()) {
-                action.run();
-            } else {
-                scheduleRetry(action, delay);
-            }
-            ((Timer)e.getSource()).stop();
-        });
-        retryTimer.setRepeats(false);
-        retryTimer.start();
+    private void closeDoors() {
+        dwellExpired = false;
+        checkSimulationEndConditions();
+        elevatorTrack.getEventBus().publish(ElevatorEvent.DOORS_CLOSED);
     }
-
+    
     public boolean canElevatorMove() {
         boolean result = !elevatorTrack.getAnimationController().isAnimationRunning() && 
                         !isMoving &&
-                        (waitingTimer == null || !waitingTimer.isRunning());
+                        (waitingTimer == null || !waitingTimer.isPending());
         
         return result;
     }
@@ -112,43 +104,41 @@ public class SimulationController {
         
         boolean cabinStopped = !isMoving && isWaitingOnFloor;
         boolean allPassengersOut = elevatorTrack.getPassengerManager().getPassengersInElevator().isEmpty();
-        boolean noNewRequests = elevatorTrack.getQueueManager().getElevatorTargetsList().isEmpty();
+        boolean noNewRequests = elevatorTrack.getQueueManager().getElevatorTargets().isEmpty();
         
-        if(cabinStopped && allPassengersOut && noNewRequests) {
-            if(endSimulationTimer == null || !endSimulationTimer.isRunning()) {
+        if(cabinStopped && allPassengersOut && noNewRequests && !trafficPending) {
+            if(endSimulationTimer == null || !endSimulationTimer.isPending()) {
                 startSimulationEndTimer();
             }
         } else {
-            if(endSimulationTimer != null && endSimulationTimer.isRunning()) {
-                endSimulationTimer.stop();
+            if(endSimulationTimer != null) {
+                endSimulationTimer.cancel();
             }
         }
     }
     
     private void startSimulationEndTimer() {
-        endSimulationTimer = new Timer(10000, e -> {
-            endSimulation();
-            ((Timer)e.getSource()).stop();
-        });
-        endSimulationTimer.setRepeats(false);
-        endSimulationTimer.start();
+        endSimulationTimer = elevatorTrack.getFrameClock().schedule(10000, this::endSimulation);
     }
     
     private void endSimulation() {
         simulationEnded = true;
         simulationStarted = false;
         isWaitingOnFloor = false;
+        dwellExpired = false;
         
-        if(waitingTimer != null && waitingTimer.isRunning()) {
-            waitingTimer.stop();
+        if(waitingTimer != null) {
+            waitingTimer.cancel();
         }
-        if(endSimulationTimer != null && endSimulationTimer.isRunning()) {
-            endSimulationTimer.stop();
+        if(endSimulationTimer != null) {
+            endSimulationTimer.cancel();
         }
+        elevatorTrack.getEventBus().clear();
         
+        elevatorTrack.getEventBus().publish(ElevatorEvent.SIMULATION_ENDED);
         elevatorTrack.getQueueManager().clearQueue();
         elevatorTrack.getPassengerManager().clearAllPassengers();
-        elevatorTrack.getAnimationController().getAnimatingPassenger().clear();
+        elevatorTrack.getAnimationController().clearAnimating();
         
         if(elevatorTrack.getElevatorButtons() != null) {
             elevatorTrack.getElevatorButtons().disableFloorSelection();
@@ -172,10 +162,11 @@ public class SimulationController {
     public boolean isSimulationEnded() { return simulationEnded; }
     public boolean isMoving() { return isMoving; }
     public void setMoving(boolean moving) { this.isMoving = moving; }
+    public void setTrafficPending(boolean pending) { this.trafficPending = pending; }
     public boolean isWaitingOnFloor() { return isWaitingOnFloor; }
     public void setWaitingOnFloor(boolean waiting) { this.isWaitingOnFloor = waiting; }
     public boolean isPassengerEntry() { return isPassengerEntry; }
     public void setPassengerEntry(boolean passengerEntry) { this.isPassengerEntry = passengerEntry; }
-    public Timer getWaitingTimer() { return waitingTimer; }
-    public Timer getEndSimulationTimer() { return endSimulationTimer; }
+    public FrameTask getWaitingTimer() { return waitingTimer; }
+    public FrameTask getEndSimulationTimer() { return endSimulationTimer; }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class SimulationEventLog implements AutoCloseable {
+    public static final int RECORD_BYTES = 8 + 1 + 2 + 4 + 4 + 4;
+    public static final long REGION_BYTES = RECORD_BYTES * (1L << 20);
+    public static final int HEADER_BYTES = 8;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private MappedByteBuffer region;
+    private long position = 0;
+
+    public SimulationEventLog(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.putLong(0, 0);
+        mapRegion();
+    }
+
+    public void append(long time, SimulationEventType type, int car, int floor, int passenger, int aux) {
+        if(!region.hasRemaining()) {
+            region.force();
+            header.force();
+            mapRegion();
+        }
+        region.putLong(time)
+            .put(type.getCode())
+            .putShort((short) car)
+            .putInt(floor)
+            .putInt(passenger)
+            .putInt(aux);
+        position += RECORD_BYTES;
+        header.putLong(0, position / RECORD_BYTES);
+    }
+
+    private void mapRegion() {
+        try {
+            region = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + position, REGION_BYTES);
+        } catch(IOException e) {
+            throw new UncheckedIOException("Cannot extend event log " + path, e);
+        }
+    }
+
+    public long getEventCount() {
+        return position / RECORD_BYTES;
+    }
+
+    @Override
+    public void close() throws IOException {
+        region.force();
+        header.force();
+        region = null;
+        channel.truncate(HEADER_BYTES + position);
+        channel.close();
+    }
+}
@@ -0,0 +1,24 @@
+public enum SimulationEventType {
+
+    SPAWN,
+    CALL,
+    REARM,
+    DISPATCH,
+    DEPART,
+    ARRIVE,
+    BOARD,
+    ALIGHT;
+
+    private static final SimulationEventType[] VALUES = values();
+
+    public byte getCode() {
+        return (byte) ordinal();
+    }
+
+    public static SimulationEventType fromCode(byte code) {
+        if(code < 0 || code >= VALUES.length) {
+            throw new IllegalArgumentException("Unknown event code: " + code);
+        }
+        return VALUES[code];
+    }
+}
@@ -0,0 +1,200 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class SimulationSnapshot {
+    private static final int MAX_FLOOR_COLORS = 256;
+    private static final int[] NONE = new int[0];
+
+    private final long version;
+    private final boolean started;
+    private final boolean ended;
+    private final boolean moving;
+    private final int cabinFloor;
+    private final int highlightedFloor;
+    private final FloorState[] floors;
+    private final int targetsVersion;
+    private final List<Integer> targets;
+    private final int cabinVersion;
+    private final int[] riderColors;
+    private final int[] movingSprites;
+    private final int[] changedFloors;
+
+    private SimulationSnapshot(long version, boolean started, boolean ended, boolean moving, int cabinFloor,
+                               int highlightedFloor, FloorState[] floors, int targetsVersion, List<Integer> targets,
+                               int cabinVersion, int[] riderColors, int[] movingSprites, int[] changedFloors) {
+        this.version = version;
+        this.started = started;
+        this.ended = ended;
+        this.moving = moving;
+        this.cabinFloor = cabinFloor;
+        this.highlightedFloor = highlightedFloor;
+        this.floors = floors;
+        this.targetsVersion = targetsVersion;
+        this.targets = targets;
+        this.cabinVersion = cabinVersion;
+        this.riderColors = riderColors;
+        this.movingSprites = movingSprites;
+        this.changedFloors = changedFloors;
+    }
+
+    public static SimulationSnapshot empty(int floorCount) {
+        FloorState[] floors = new FloorState[floorCount];
+        for(int floor = 0; floor < floorCount; floor++) {
+            floors[floor] = FloorState.EMPTY;
+        }
+        return new SimulationSnapshot(0, false, false, false, 0, -1, floors, -1, Collections.emptyList(),
+            -1, NONE, NONE, NONE);
+    }
+
+    public static SimulationSnapshot capture(ElevatorTrack elevatorTrack, SimulationSnapshot previous) {
+        PassengerManager passengerManager = elevatorTrack.getPassengerManager();
+        TaskScheduler queueManager = elevatorTrack.getQueueManager();
+        SimulationController simulationController = elevatorTrack.getSimulationController();
+        FloorRequestQueue.View elevatorTargets = queueManager.getElevatorTargets();
+
+        FloorState[] floors = previous.floors;
+        int[] changedFloors = NONE;
+        int changedCount = 0;
+        for(int floor = 0; floor < floors.length; floor++) {
+            PassengerQueue.View waiting = passengerManager.getPassengersOnFloor(floor);
+            boolean callEnabled = queueManager.isFloorCallButtonEnabled(floor);
+            boolean queued = elevatorTargets.contains(floor);
+            FloorState row = previous.floors[floor];
+            if(!row.matches(waiting.getVersion(), callEnabled, queued)) {
+                if(floors == previous.floors) {
+                    floors = previous.floors.clone();
+                    changedFloors = new int[floors.length - floor];
+                }
+                floors[floor] = new FloorState(passengerManager, waiting, callEnabled, queued);
+                changedFloors[changedCount++] = floor;
+            }
+        }
+
+        List<Integer> targets = previous.targets;
+        if(elevatorTargets.getVersion() != previous.targetsVersion) {
+            List<Integer> current = elevatorTargets.toList();
+            targets = current.equals(previous.targets) ? previous.targets : Collections.unmodifiableList(current);
+        }
+
+        int[] riderColors = previous.riderColors;
+        if(passengerManager.getCabinVersion() != previous.cabinVersion) {
+            riderColors = colorsOf(passengerManager, passengerManager.getPassengersInElevator());
+        }
+
+        int[] movingSprites = captureMovingSprites(passengerManager, elevatorTrack.getAnimationController().getAnimatingPassenger(),
+            previous.movingSprites);
+
+        boolean started = simulationController.isSimulationStarted();
+        boolean ended = simulationController.isSimulationEnded();
+        boolean moving = simulationController.isMoving();
+        int cabinFloor = elevatorTrack.getCabinFloor();
+        int highlightedFloor = elevatorTrack.getHighlightedFloor();
+
+        if(floors == previous.floors && targets == previous.targets && riderColors == previous.riderColors &&
+           movingSprites == previous.movingSprites && started == previous.started && ended == previous.ended &&
+           moving == previous.moving && cabinFloor == previous.cabinFloor &&
+           highlightedFloor == previous.highlightedFloor) {
+            return previous;
+        }
+        return new SimulationSnapshot(previous.version + 1, started, ended, moving, cabinFloor, highlightedFloor,
+            floors, elevatorTargets.getVersion(), targets, passengerManager.getCabinVersion(), riderColors,
+            movingSprites, Arrays.copyOf(changedFloors, changedCount));
+    }
+
+    private static int[] colorsOf(PassengerManager passengerManager, List<Passenger> passengers) {
+        if(passengers.isEmpty()) {
+            return NONE;
+        }
+        int[] colors = new int[passengers.size()];
+        for(int i = 0; i < colors.length; i++) {
+            colors[i] = passengerManager.getView(passengers.get(i)).getColorIndex();
+        }
+        return colors;
+    }
+
+    private static int[] captureMovingSprites(PassengerManager passengerManager, List<Passenger> animating, int[] previous) {
+        int count = 0;
+        for(Passenger passenger : animating) {
+            if(passengerManager.getView(passenger).isAnimating()) {
+                count++;
+            }
+        }
+        if(count == 0) {
+            return NONE;
+        }
+
+        int[] sprites = new int[count * 3];
+        int index = 0;
+        for(Passenger passenger : animating) {
+            PassengerView view = passengerManager.getView(passenger);
+            if(view.isAnimating()) {
+                sprites[index++] = view.getCurrentPos().x;
+                sprites[index++] = view.getCurrentPos().y;
+                sprites[index++] = view.getColorIndex();
+            }
+        }
+        return Arrays.equals(sprites, previous) ? previous : sprites;
+    }
+
+    public long getVersion() { return version; }
+    public boolean isStarted() { return started; }
+    public boolean isEnded() { return ended; }
+    public boolean isMoving() { return moving; }
+    public int getCabinFloor() { return cabinFloor; }
+    public int getHighlightedFloor() { return highlightedFloor; }
+    public int getFloors() { return floors.length; }
+    public FloorState getFloor(int floor) { return floors[floor]; }
+    public int getChangedFloorCount() { return changedFloors.length; }
+    public int getChangedFloor(int index) { return changedFloors[index]; }
+    public int getWaitingOnFloor(int floor) { return floors[floor].getWaiting(); }
+    public boolean isCallButtonEnabled(int floor) { return floors[floor].isCallButtonEnabled(); }
+    public List<Integer> getTargets() { return targets; }
+    public int getRidersInCabin() { return riderColors.length; }
+    public int getRiderColor(int index) { return riderColors[index]; }
+    public boolean hasSameRiders(SimulationSnapshot other) { return riderColors == other.riderColors; }
+    public int getMovingCount() { return movingSprites.length / 3; }
+    public int getMovingX(int index) { return movingSprites[index * 3]; }
+    public int getMovingY(int index) { return movingSprites[index * 3 + 1]; }
+    public int getMovingColor(int index) { return movingSprites[index * 3 + 2]; }
+    public boolean hasSameMovingPassengers(SimulationSnapshot other) { return movingSprites == other.movingSprites; }
+
+    public static final class FloorState {
+        private static final FloorState EMPTY = new FloorState(-1, 0, NONE, false, false);
+
+        private final int queueVersion;
+        private final int waiting;
+        private final int[] colors;
+        private final boolean callEnabled;
+        private final boolean queued;
+
+        private FloorState(int queueVersion, int waiting, int[] colors, boolean callEnabled, boolean queued) {
+            this.queueVersion = queueVersion;
+            this.waiting = waiting;
+            this.colors = colors;
+            this.callEnabled = callEnabled;
+            this.queued = queued;
+        }
+
+        private FloorState(PassengerManager passengerManager, PassengerQueue.View passengers, boolean callEnabled, boolean queued) {
+            this.queueVersion = passengers.getVersion();
+            this.waiting = passengers.size();
+            this.colors = new int[Math.min(waiting, MAX_FLOOR_COLORS)];
+            for(int i = 0; i < colors.length; i++) {
+                colors[i] = passengerManager.getView(passengers.get(i)).getColorIndex();
+            }
+            this.callEnabled = callEnabled;
+            this.queued = queued;
+        }
+
+        private boolean matches(int queueVersion, boolean callEnabled, boolean queued) {
+            return this.queueVersion == queueVersion && this.callEnabled == callEnabled && this.queued == queued;
+        }
+
+        public int getWaiting() { return waiting; }
+        public int getColorCount() { return colors.length; }
+        public int getColorIndex(int index) { return colors[index]; }
+        public boolean isCallButtonEnabled() { return callEnabled; }
+        public boolean isQueued() { return queued; }
+    }
+}
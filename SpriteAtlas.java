@@ -0,0 +1,47 @@
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+public class SpriteAtlas {
+    public static final int FLOOR_SPRITE = 0;
+    public static final int CABIN_SPRITE = 1;
+    public static final int MOVING_SPRITE = 2;
+
+    private static final int[] SPRITE_SIZES = {8, 6, 6};
+    private static final Color[] OUTLINE_COLORS = {Color.BLACK, Color.WHITE, Color.BLACK};
+    private static final int CELL = 10;
+
+    private final BufferedImage image;
+
+    public SpriteAtlas(Color[] palette) {
+        image = new BufferedImage(palette.length * CELL, SPRITE_SIZES.length * CELL, BufferedImage.TYPE_INT_ARGB);
+
+        Graphics g = image.getGraphics();
+        try {
+            for(int style = 0; style < SPRITE_SIZES.length; style++) {
+                int size = SPRITE_SIZES[style];
+                for(int color = 0; color < palette.length; color++) {
+                    int x = color * CELL;
+                    int y = style * CELL;
+                    g.setColor(palette[color]);
+                    g.fillOval(x, y, size, size);
+                    g.setColor(OUTLINE_COLORS[style]);
+                    g.drawOval(x, y, size, size);
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    public void draw(Graphics g, int style, int colorIndex, int x, int y) {
+        int extent = SPRITE_SIZES[style] + 1;
+        int sx = colorIndex * CELL;
+        int sy = style * CELL;
+        g.drawImage(image, x, y, x + extent, y + extent, sx, sy, sx + extent, sy + extent, null);
+    }
+
+    public static int getSpriteSize(int style) {
+        return SPRITE_SIZES[style];
+    }
+}
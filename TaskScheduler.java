@@ -1,48 +1,44 @@
+import java.util.Arrays;
 import java.util.List;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Collections;
-import java.util.stream.Collectors;
-import javax.swing.Timer;
 
-public class TaskScheduler {
+public final class TaskScheduler {
     private final ElevatorTrack elevatorTrack;
-    private List<Integer> passengerFloorRequest;
-    private HashMap<Integer, Boolean> floorCallButtons;
-    private Directions currentDirection = null;
+    private FloorRequestQueue passengerFloorRequest;
+    private final boolean[] floorCallButtons;
+    private final boolean[] riderDestinations;
+    private final int[] bypassedFloors;
     
     public TaskScheduler(ElevatorTrack elevatorTrack) {
         this.elevatorTrack = elevatorTrack;
-        this.passengerFloorRequest = new ArrayList<>();
-        this.floorCallButtons = new HashMap<>();
+        this.passengerFloorRequest = new FloorRequestQueue(elevatorTrack.getBuildingSpec().getFloors());
+        this.floorCallButtons = new boolean[elevatorTrack.getBuildingSpec().getFloors()];
+        Arrays.fill(floorCallButtons, true);
+        this.riderDestinations = new boolean[elevatorTrack.getBuildingSpec().getFloors()];
+        this.bypassedFloors = new int[elevatorTrack.getBuildingSpec().getFloors()];
         
-        for(int i = 0; i <= 10; i++) {
-            floorCallButtons.put(i, true);
-        }
+        elevatorTrack.getEventBus().subscribe(ElevatorEvent.DOORS_CLOSED, this::processFloorRequestQueue);
     }
     
     public void handleFloorCallButtonClick(int floor) {
-        if(elevatorTrack.getSimulationController().isSimulationEnded() ||
-           elevatorTrack.getAnimationController().isAnimationRunning()) {
-            scheduleRetry(() -> handleFloorCallButtonClick(floor), 500);
+        if(elevatorTrack.getSimulationController().isSimulationEnded()) {
             return;
         }
         
-        if(!elevatorTrack.getPassengerManager().hasPassengersOnFloor(floor) || !floorCallButtons.get(floor)) {
+        if(elevatorTrack.getAnimationController().isAnimationRunning()) {
+            elevatorTrack.getAnimationController().runWhenIdle(() -> handleFloorCallButtonClick(floor));
             return;
         }
         
-        floorCallButtons.put(floor, false);
-        
-        if(!passengerFloorRequest.contains(floor)) {
-            passengerFloorRequest.add(floor);
+        if(!elevatorTrack.getPassengerManager().hasPassengersOnFloor(floor) || !floorCallButtons[floor]) {
+            return;
         }
         
+        floorCallButtons[floor] = false;
+        passengerFloorRequest.add(floor);
+        
         if(elevatorTrack.getSimulationController().canElevatorMove()) {
             callElevatorToFloor(floor, true);
         }
-        
-        elevatorTrack.repaint();
     }
     
     public void addFloorTarget(int targetFloor) {
@@ -51,7 +47,7 @@ public class TaskScheduler {
         }
         
         if(elevatorTrack.getAnimationController().isAnimationRunning()) {
-            scheduleRetry(() -> addFloorTarget(targetFloor), 200);
+            elevatorTrack.getAnimationController().runWhenIdle(() -> addFloorTarget(targetFloor));
             return;
         }
         
@@ -71,19 +67,59 @@ public class TaskScheduler {
             return;
         }
         
-        passengerFloorRequest.remove(Integer.valueOf(elevatorTrack.getCabinFloor()));
+        if(passengerFloorRequest.contains(elevatorTrack.getCabinFloor())) {
+            passengerFloorRequest.remove(elevatorTrack.getCabinFloor());
+            floorCallButtons[elevatorTrack.getCabinFloor()] = true;
+        }
         
         if(passengerFloorRequest.isEmpty()) {
             return;
         }
         
-        int nextFloor = findNearestFloorFromQueue();
-        passengerFloorRequest.remove(Integer.valueOf(nextFloor));
+        int nextFloor = nextServiceableStop();
+        passengerFloorRequest.remove(nextFloor);
         
         elevatorTrack.getSimulationController().setWaitingOnFloor(false);
         callElevatorToFloor(nextFloor, false);
     }
     
+    private int nextServiceableStop() {
+        int cabinFloor = elevatorTrack.getCabinFloor();
+        int nextFloor = passengerFloorRequest.nextStop(cabinFloor);
+        List<Passenger> riders = elevatorTrack.getPassengerManager().getPassengersInElevator();
+        if(riders.size() < elevatorTrack.getBuildingSpec().getCapacity()) {
+            return nextFloor;
+        }
+        
+        boolean destinationQueued = false;
+        for(int i = 0; i < riders.size(); i++) {
+            if(riders.get(i).getTargetFloor() == -1) {
+                return nextFloor;
+            }
+            destinationQueued |= passengerFloorRequest.contains(riders.get(i).getTargetFloor());
+        }
+        if(!destinationQueued) {
+            return nextFloor;
+        }
+        
+        for(int i = 0; i < riders.size(); i++) {
+            riderDestinations[riders.get(i).getTargetFloor()] = true;
+        }
+        int bypassed = 0;
+        while(!riderDestinations[nextFloor]) {
+            passengerFloorRequest.remove(nextFloor);
+            bypassedFloors[bypassed++] = nextFloor;
+            nextFloor = passengerFloorRequest.nextStop(cabinFloor);
+        }
+        for(int i = 0; i < bypassed; i++) {
+            passengerFloorRequest.add(bypassedFloors[i]);
+        }
+        for(int i = 0; i < riders.size(); i++) {
+            riderDestinations[riders.get(i).getTargetFloor()] = false;
+        }
+        return nextFloor;
+    }
+    
     private void callElevatorToFloor(int floor, boolean isCallRequest) {
         if(elevatorTrack.getAnimationController().isAnimationRunning() || 
            elevatorTrack.getSimulationController().isMoving()) {
@@ -98,96 +134,31 @@ public class TaskScheduler {
             () -> elevatorTrack.getSimulationController().arriveAtFloor(floor));
     }
     
-    private int findNearestFloorFromQueue() {
-        if(passengerFloorRequest.isEmpty()) return elevatorTrack.getCabinFloor();
-        
-        List<Integer> upwardTargets = getUpwardTargets();
-        List<Integer> downwardTargets = getDownwardTargets();
-        
-        if(currentDirection == null) {
-            int nearest = passengerFloorRequest.get(0);
-            int minDistance = Math.abs(nearest - elevatorTrack.getCabinFloor());
-            
-            for(int floor : passengerFloorRequest) {
-                int distance = Math.abs(floor - elevatorTrack.getCabinFloor());
-                if(distance < minDistance) {
-                    minDistance = distance;
-                    nearest = floor;
-                }
-            }
-            
-            currentDirection = (nearest > elevatorTrack.getCabinFloor()) ? Directions.UP : Directions.DOWN;
-            return nearest;
-        }
-        
-        if(currentDirection == Directions.UP && !upwardTargets.isEmpty()) {
-            return Collections.min(upwardTargets);
-        }
-        
-        if(currentDirection == Directions.DOWN && !downwardTargets.isEmpty()) {
-            return Collections.max(downwardTargets);
-        }
-        
-        if(currentDirection == Directions.UP && !downwardTargets.isEmpty()) {
-            currentDirection = Directions.DOWN;
-            return Collections.max(downwardTargets);
-        }
-        
-        if(currentDirection == Directions.DOWN && !upwardTargets.isEmpty()) {
-            currentDirection = Directions.UP;
-            return Collections.min(upwardTargets);
-        }
-        
-        return passengerFloorRequest.get(0);
-    }
-    
-    private List<Integer> getUpwardTargets() {
-        return passengerFloorRequest.stream()
-            .filter(floor -> floor > elevatorTrack.getCabinFloor())
-            .sorted()
-            .collect(Collectors.toList());
-    }
-    
-    private List<Integer> getDownwardTargets() {
-        return passengerFloorRequest.stream()
-            .filter(floor -> floor < elevatorTrack.getCabinFloor())
-            .sorted(Collections.reverseOrder())
-            .collect(Collectors.toList());
-    }
-    
-
-    
-    private void scheduleRetry(Runnable action, int delay) {
-        Timer retryTimer = new Timer(delay, e -> {
-            if(!elevatorTrack.getAnimationController().isAnimationRunning()) {
-                action.run();
-            }
-            ((Timer)e.getSource()).stop();
-        });
-        retryTimer.setRepeats(false);
-        retryTimer.start();
+    public void resetFloorCallButtons() {
+        Arrays.fill(floorCallButtons, true);
     }
     
-    public void resetFloorCallButtons() {
-        for(int i = 0; i <= 10; i++) {
-            floorCallButtons.put(i, true);
-        }
+    public void enableFloorCallButton(int floor) {
+        floorCallButtons[floor] = true;
     }
     
     public void clearQueue() {
         passengerFloorRequest.clear();
-        currentDirection = null;
     }
     
-    public List<Integer> getElevatorTargetsList() {
-        return passengerFloorRequest;
+    public void clearStop(int floor) {
+        passengerFloorRequest.remove(floor);
+    }
+    
+    public FloorRequestQueue.View getElevatorTargets() {
+        return passengerFloorRequest.view();
     }
     
-    public HashMap<Integer, Boolean> getFloorCallButtons() {
-        return floorCallButtons;
+    public boolean isFloorCallButtonEnabled(int floor) {
+        return floorCallButtons[floor];
     }
     
     public Directions getCurrentDirection() {
-        return currentDirection;
+        return passengerFloorRequest.getCurrentDirection();
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+import java.awt.Rectangle;
+
+public class TrackHitIndex {
+    public static final int CABIN_SLOT_SIZE = 6;
+    public static final int CABIN_SLOT_SPACING = CABIN_SLOT_SIZE + 2;
+    public static final int CABIN_SLOT_INSET = 5;
+    public static final int MAX_CABIN_SLOTS = 20;
+    public static final int CROWD_GLYPH_WIDTH = 34;
+
+    private int floors = 0;
+    private int startY;
+    private int floorHeight;
+    private Rectangle callButtonTemplate = new Rectangle();
+
+    public void rebuild(int floors, int startY, int floorHeight, Rectangle callButtonTemplate) {
+        this.floors = floors;
+        this.startY = startY;
+        this.floorHeight = floorHeight;
+        this.callButtonTemplate = new Rectangle(callButtonTemplate);
+    }
+
+    public int floorAt(int y) {
+        if(floorHeight <= 0 || y < startY) {
+            return -1;
+        }
+        int row = (y - startY) / floorHeight;
+        if(row >= floors) {
+            return -1;
+        }
+        return floors - 1 - row;
+    }
+
+    public int callButtonAt(int x, int y) {
+        int floor = floorAt(y);
+        if(floor == -1) {
+            return -1;
+        }
+        int rowY = startY + (floors - 1 - floor) * floorHeight;
+        int localY = y - rowY - callButtonTemplate.y;
+        int localX = x - callButtonTemplate.x;
+        if(localX < 0 || localX >= callButtonTemplate.width || localY < 0 || localY >= callButtonTemplate.height) {
+            return -1;
+        }
+        return floor;
+    }
+
+    public static int cabinSlotAt(Rectangle cabinBounds, int x, int y, int riders) {
+        int localX = x - cabinBounds.x - CABIN_SLOT_INSET;
+        int localY = y - cabinBounds.y - CABIN_SLOT_INSET;
+        if(localX < 0 || localY < 0) {
+            return -1;
+        }
+
+        int cols = getCabinColumns(cabinBounds);
+        int col = localX / CABIN_SLOT_SPACING;
+        int row = localY / CABIN_SLOT_SPACING;
+        if(col >= cols || localX % CABIN_SLOT_SPACING >= CABIN_SLOT_SIZE || localY % CABIN_SLOT_SPACING >= CABIN_SLOT_SIZE) {
+            return -1;
+        }
+
+        int slot = row * cols + col;
+        return slot < getVisibleCabinRiders(cabinBounds, riders) ? slot : -1;
+    }
+
+    public static int getVisibleCabinRiders(Rectangle cabinBounds, int riders) {
+        if(riders <= MAX_CABIN_SLOTS) {
+            return riders;
+        }
+        int cols = getCabinColumns(cabinBounds);
+        int glyphSlots = (CROWD_GLYPH_WIDTH + CABIN_SLOT_SIZE + 1) / CABIN_SLOT_SPACING;
+        int lastRow = (MAX_CABIN_SLOTS - 1) / cols * cols;
+        return Math.max(lastRow, Math.min(lastRow + cols, MAX_CABIN_SLOTS) - glyphSlots);
+    }
+
+    public static int getCabinColumns(Rectangle cabinBounds) {
+        return Math.max(1, (cabinBounds.width - 2 * CABIN_SLOT_INSET) / CABIN_SLOT_SPACING);
+    }
+
+    public static int getCabinSlotX(Rectangle cabinBounds, int slot) {
+        return cabinBounds.x + CABIN_SLOT_INSET + (slot % getCabinColumns(cabinBounds)) * CABIN_SLOT_SPACING;
+    }
+
+    public static int getCabinSlotY(Rectangle cabinBounds, int slot) {
+        return cabinBounds.y + CABIN_SLOT_INSET + (slot / getCabinColumns(cabinBounds)) * CABIN_SLOT_SPACING;
+    }
+}
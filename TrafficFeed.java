@@ -0,0 +1,54 @@
+public class TrafficFeed implements Runnable {
+    public static final String RATE_PROPERTY = "elevator.traffic.rate";
+    public static final String HOURS_PROPERTY = "elevator.traffic.hours";
+    public static final long LOOKAHEAD_MS = 1000;
+
+    private final ElevatorTrack elevatorTrack;
+    private final TrafficGenerator trafficGenerator;
+    private long startTime;
+
+    public TrafficFeed(ElevatorTrack elevatorTrack, TrafficGenerator trafficGenerator) {
+        this.elevatorTrack = elevatorTrack;
+        this.trafficGenerator = trafficGenerator;
+    }
+
+    public static TrafficFeed fromProperties(ElevatorTrack elevatorTrack, long seed) {
+        double rate = Double.parseDouble(System.getProperty(RATE_PROPERTY, "0"));
+        if(rate <= 0) {
+            return null;
+        }
+        double hours = Double.parseDouble(System.getProperty(HOURS_PROPERTY, "1"));
+        return new TrafficFeed(elevatorTrack, new TrafficGenerator(seed, elevatorTrack.getBuildingSpec().getFloors(),
+            rate, 0, (long) (hours * 3_600_000)));
+    }
+
+    public void start() {
+        startTime = elevatorTrack.getFrameClock().now();
+        elevatorTrack.getSimulationController().setTrafficPending(true);
+        Thread thread = new Thread(this, "traffic-feed");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        FrameClock frameClock = elevatorTrack.getFrameClock();
+        long now = 0;
+        try {
+            long arrival;
+            while((arrival = trafficGenerator.nextArrivalTime(now)) >= 0) {
+                while(frameClock.now() < startTime + Math.min(now, arrival - LOOKAHEAD_MS)) {
+                    Thread.sleep(FrameClock.FRAME_MS);
+                }
+                now = arrival;
+
+                trafficGenerator.nextRoute(now);
+                elevatorTrack.submit(SimulationCommand.spawnPassengerAt(startTime + now, trafficGenerator.getOrigin()));
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            elevatorTrack.submit(SimulationCommand.finishTraffic());
+        }
+    }
+}
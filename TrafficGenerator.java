@@ -0,0 +1,78 @@
+import java.util.SplittableRandom;
+
+public class TrafficGenerator {
+    private static final double MS_PER_HOUR = 3_600_000.0;
+
+    private final SplittableRandom timingRandom;
+    private final SplittableRandom routeRandom;
+    private final int floors;
+    private final double peakArrivalsPerHour;
+    private final long startOfDayMs;
+    private final long durationMs;
+    private final TrafficProfile fixedProfile;
+
+    private int origin;
+    private int destination;
+
+    public TrafficGenerator(long seed, int floors, double peakArrivalsPerHour, long startOfDayMs, long durationMs) {
+        this(seed, floors, peakArrivalsPerHour, startOfDayMs, durationMs, null);
+    }
+
+    public TrafficGenerator(long seed, int floors, double peakArrivalsPerHour, long startOfDayMs, long durationMs,
+                            TrafficProfile fixedProfile) {
+        if(floors < 2) {
+            throw new IllegalArgumentException("Traffic needs at least two floors: " + floors);
+        }
+        if(peakArrivalsPerHour <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive: " + peakArrivalsPerHour);
+        }
+
+        SplittableRandom root = new SplittableRandom(seed);
+        this.timingRandom = root.split();
+        this.routeRandom = root.split();
+        this.floors = floors;
+        this.peakArrivalsPerHour = peakArrivalsPerHour;
+        this.startOfDayMs = startOfDayMs;
+        this.durationMs = durationMs;
+        this.fixedProfile = fixedProfile;
+    }
+
+    public TrafficProfile profileAt(long simulationTime) {
+        return fixedProfile != null ? fixedProfile : TrafficProfile.forTimeOfDay(startOfDayMs + simulationTime);
+    }
+
+    public long nextArrivalTime(long now) {
+        double time = now;
+        while(true) {
+            time += -Math.log(1.0 - timingRandom.nextDouble()) * MS_PER_HOUR / peakArrivalsPerHour;
+            if(time >= durationMs) {
+                return -1;
+            }
+            if(timingRandom.nextDouble() < profileAt((long) time).getRateFactor()) {
+                return (long) Math.ceil(time);
+            }
+        }
+    }
+
+    public void nextRoute(long now) {
+        TrafficProfile profile = profileAt(now);
+        double roll = routeRandom.nextDouble();
+
+        if(roll < profile.getFromLobbyShare()) {
+            origin = 0;
+            destination = 1 + routeRandom.nextInt(floors - 1);
+        } else if(roll < profile.getFromLobbyShare() + profile.getToLobbyShare()) {
+            origin = 1 + routeRandom.nextInt(floors - 1);
+            destination = 0;
+        } else {
+            origin = routeRandom.nextInt(floors);
+            int other = routeRandom.nextInt(floors - 1);
+            destination = other >= origin ? other + 1 : other;
+        }
+    }
+
+    public int getOrigin() { return origin; }
+    public int getDestination() { return destination; }
+    public long getDurationMs() { return durationMs; }
+    public double getPeakArrivalsPerHour() { return peakArrivalsPerHour; }
+}
@@ -0,0 +1,38 @@
+public enum TrafficProfile {
+
+    UP_PEAK(0.85, 0.05, 1.0),
+    DOWN_PEAK(0.05, 0.85, 1.0),
+    LUNCH(0.45, 0.45, 0.7),
+    INTER_FLOOR(0.10, 0.10, 0.3);
+
+    private static final long HOUR_MS = 3_600_000L;
+    private static final long DAY_MS = 24 * HOUR_MS;
+
+    private final double fromLobbyShare;
+    private final double toLobbyShare;
+    private final double rateFactor;
+
+    TrafficProfile(double fromLobbyShare, double toLobbyShare, double rateFactor) {
+        this.fromLobbyShare = fromLobbyShare;
+        this.toLobbyShare = toLobbyShare;
+        this.rateFactor = rateFactor;
+    }
+
+    public static TrafficProfile forTimeOfDay(long timeOfDayMs) {
+        long minutes = Math.floorMod(timeOfDayMs, DAY_MS) / 60_000L;
+        if(minutes >= 7 * 60 + 30 && minutes < 9 * 60 + 30) {
+            return UP_PEAK;
+        }
+        if(minutes >= 11 * 60 + 45 && minutes < 13 * 60 + 45) {
+            return LUNCH;
+        }
+        if(minutes >= 16 * 60 + 30 && minutes < 18 * 60 + 30) {
+            return DOWN_PEAK;
+        }
+        return INTER_FLOOR;
+    }
+
+    public double getFromLobbyShare() { return fromLobbyShare; }
+    public double getToLobbyShare() { return toLobbyShare; }
+    public double getRateFactor() { return rateFactor; }
+}
@@ -0,0 +1,98 @@
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+public class BenchmarkFixtures {
+    private static final LongSupplier NOTHING = () -> 0;
+
+    public static LongSupplier[] nextStop(int floors, int depth) {
+        FloorRequestQueue queue = filledQueue(floors, Math.min(depth, floors), new SplittableRandom(depth));
+        int[] cabinFloor = {floors / 2};
+        return new LongSupplier[] {NOTHING, () -> {
+            int next = queue.nextStop(cabinFloor[0]);
+            cabinFloor[0] = (cabinFloor[0] + 7) % floors;
+            return next;
+        }};
+    }
+
+    public static LongSupplier[] processFloorRequestQueue(int floors, int depth) {
+        ElevatorTrack track = startedTrack(floors);
+        TaskScheduler scheduler = track.getQueueManager();
+        SimulationController controller = track.getSimulationController();
+        SplittableRandom random = new SplittableRandom(depth);
+        int stops = Math.min(depth, floors - 1);
+        LongSupplier prepare = () -> {
+            track.getFrameClock().clear();
+            if(track.getHighlightedFloor() >= 0) {
+                track.setCabinFloor(track.getHighlightedFloor());
+            }
+            controller.setMoving(true);
+            while(scheduler.getElevatorTargets().size() < stops) {
+                scheduler.addFloorTarget(random.nextInt(floors));
+            }
+            controller.setMoving(false);
+            return 0;
+        };
+        return new LongSupplier[] {prepare, () -> {
+            scheduler.processFloorRequestQueue();
+            return track.getHighlightedFloor();
+        }};
+    }
+
+    public static LongSupplier[] loadPassengersAutomatically(int floors, int depth) {
+        ElevatorTrack track = startedTrack(floors);
+        PassengerManager passengers = track.getPassengerManager();
+        FrameClock clock = track.getFrameClock();
+        long boardingMs = track.getBuildingSpec().getPassengerTransferMs() + FrameClock.FRAME_MS;
+        int floor = track.getCabinFloor();
+        LongSupplier prepare = () -> {
+            passengers.clearAllPassengers();
+            clock.clear();
+            while(passengers.getCountPassengersOnFloor(floor) < depth) {
+                passengers.addPassenger(floor);
+            }
+            return 0;
+        };
+        return new LongSupplier[] {prepare, () -> {
+            passengers.loadPassengersAutomatically(floor);
+            clock.advance(boardingMs);
+            return passengers.getPassengersInElevator().size();
+        }};
+    }
+
+    public static LongSupplier[] simulatedHour(int floors, int cars, int ridersPerCarHour) {
+        BuildingSpec spec = spec(floors, cars);
+        long[] seed = {0};
+        return new LongSupplier[] {NOTHING, () -> {
+            HeadlessSimulation simulation = new HeadlessSimulation(seed[0]++, spec);
+            simulation.setTrafficGenerator(new TrafficGenerator(seed[0], floors, (double) ridersPerCarHour * cars, 0,
+                3_600_000L, TrafficProfile.UP_PEAK));
+            simulation.startSimulation();
+            simulation.run();
+            return simulation.getDeliveredPassengers();
+        }};
+    }
+
+    private static ElevatorTrack startedTrack(int floors) {
+        ElevatorTrack track = new ElevatorTrack(spec(floors, 1), new FrameClock(false));
+        track.setSize(300, 40 * floors);
+        track.calculatePositions();
+        track.startSimulation();
+        track.getPassengerManager().clearAllPassengers();
+        track.getFrameClock().clear();
+        return track;
+    }
+
+    private static BuildingSpec spec(int floors, int cars) {
+        BuildingSpec base = BuildingSpec.defaults();
+        return new BuildingSpec(floors, cars, base.getCapacity(), base.getFloorTravelMs(), base.getDoorDwellMs(),
+            base.getPassengerTransferMs());
+    }
+
+    private static FloorRequestQueue filledQueue(int floors, int depth, SplittableRandom random) {
+        FloorRequestQueue queue = new FloorRequestQueue(floors);
+        while(queue.size() < depth) {
+            queue.add(random.nextInt(floors));
+        }
+        return queue;
+    }
+}
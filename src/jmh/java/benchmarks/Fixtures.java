@@ -0,0 +1,23 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+final class Fixtures {
+    static final int PREPARE = 0;
+    static final int MEASURE = 1;
+
+    private Fixtures() {
+    }
+
+    static LongSupplier[] create(String name, int... arguments) {
+        Class<?>[] types = new Class<?>[arguments.length];
+        Arrays.fill(types, int.class);
+        Object[] values = Arrays.stream(arguments).boxed().toArray();
+        try {
+            return (LongSupplier[]) Class.forName("BenchmarkFixtures").getMethod(name, types).invoke(null, values);
+        } catch(ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create benchmark fixture " + name, e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SchedulerBenchmark {
+    public abstract static class FixtureState {
+        @Param({"11", "40", "120"})
+        public int floors;
+
+        @Param({"1", "8", "64"})
+        public int depth;
+
+        LongSupplier[] fixture;
+
+        abstract String fixtureName();
+
+        @Setup(Level.Trial)
+        public void createFixture() {
+            fixture = Fixtures.create(fixtureName(), floors, depth);
+        }
+
+        long measure() {
+            return fixture[Fixtures.MEASURE].getAsLong();
+        }
+    }
+
+    public abstract static class StagedState extends FixtureState {
+        @Setup(Level.Invocation)
+        public void prepare() {
+            fixture[Fixtures.PREPARE].getAsLong();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class NextStopState extends FixtureState {
+        @Override
+        String fixtureName() { return "nextStop"; }
+    }
+
+    @State(Scope.Thread)
+    public static class DispatchState extends StagedState {
+        @Override
+        String fixtureName() { return "processFloorRequestQueue"; }
+    }
+
+    @State(Scope.Thread)
+    public static class LoadingState extends StagedState {
+        @Override
+        String fixtureName() { return "loadPassengersAutomatically"; }
+    }
+
+    @Benchmark
+    public long nextStop(NextStopState state) {
+        return state.measure();
+    }
+
+    @Benchmark
+    public long processFloorRequestQueue(DispatchState state) {
+        return state.measure();
+    }
+
+    @Benchmark
+    public long loadPassengersAutomatically(LoadingState state) {
+        return state.measure();
+    }
+}
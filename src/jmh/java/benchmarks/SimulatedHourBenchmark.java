@@ -0,0 +1,44 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulatedHourBenchmark {
+    @Param({"11", "40", "120"})
+    private int floors;
+
+    @Param({"1", "4", "8"})
+    private int cars;
+
+    @Param({"300", "600"})
+    private int ridersPerCarHour;
+
+    private LongSupplier simulatedHour;
+
+    @Setup
+    public void setUp() {
+        simulatedHour = Fixtures.create("simulatedHour", floors, cars, ridersPerCarHour)[Fixtures.MEASURE];
+    }
+
+    @Benchmark
+    public long simulatedHour() {
+        return simulatedHour.getAsLong();
+    }
+}